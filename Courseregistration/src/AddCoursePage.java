@@ -5,8 +5,6 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.Date;
 
@@ -15,13 +13,15 @@ public class AddCoursePage extends JPanel {
     private JTextField txtCourseId, txtCourseName;
     private JTextArea txtDescription;
     private JComboBox<String> cmbMode;
-    private JSpinner dateSpinner, timeSpinner;
+    private JSpinner dateSpinner, timeSpinner, durationSpinner;
     private JTextField txtPoster;
     private JLabel lblPreview;
 
     private Color primary = new Color(52, 152, 219);
     private Color primaryDark = new Color(41, 128, 185);
 
+    private final CourseRepository courses = new CourseRepository();
+
     public AddCoursePage(MainFrame main) {
         this.main = main;
         setLayout(new BorderLayout());
@@ -95,6 +95,14 @@ public class AddCoursePage extends JPanel {
         timeSpinner.setEditor(timeEditor);
         formPanel.add(timeSpinner, gbc);
 
+        
+        gbc.gridy++;
+        gbc.gridx = 0;
+        formPanel.add(new JLabel("Duration (minutes):"), gbc);
+        gbc.gridx = 1;
+        durationSpinner = new JSpinner(new SpinnerNumberModel(CourseRepository.DEFAULT_DURATION_MINUTES, 1, 24 * 60, 15));
+        formPanel.add(durationSpinner, gbc);
+
       
         gbc.gridy++;
         gbc.gridx = 0;
@@ -176,6 +184,7 @@ public class AddCoursePage extends JPanel {
         String description = txtDescription.getText().trim();
         Date date = (Date) dateSpinner.getValue();
         Date time = (Date) timeSpinner.getValue();
+        int durationMinutes = (Integer) durationSpinner.getValue();
         String mode = (String) cmbMode.getSelectedItem();
         String poster = txtPoster.getText().isEmpty() ? "No file chosen" : txtPoster.getText();
 
@@ -194,20 +203,10 @@ public class AddCoursePage extends JPanel {
              }
         }
 
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement pst = conn.prepareStatement(
-                     "INSERT INTO courses (course_id, course_name, description, course_date, course_time, mode, poster, is_deleted) VALUES (?, ?, ?, ?, ?, ?, ?, FALSE)")) {
-            
-
-            pst.setString(1, courseId);
-            pst.setString(2, courseName);
-            pst.setString(3, description);
-            pst.setDate(4, new java.sql.Date(date.getTime()));
-            pst.setTime(5, new java.sql.Time(time.getTime()));
-            pst.setString(6, mode);
-            pst.setString(7, poster);
-            pst.executeUpdate();
-
+        UnitOfWork.submit(this, "AddCoursePage.saveCourse", () -> {
+            courses.insert(courseId, courseName, description, date, time, durationMinutes, mode, poster);
+            return null;
+        }, done -> {
             JOptionPane.showMessageDialog(this, "Course added successfully!");
             clearFields();
 
@@ -222,10 +221,7 @@ public class AddCoursePage extends JPanel {
             if (mcp != null) {
                 mcp.refresh(); 
             }
-
-        } catch (SQLException ex) {
-            JOptionPane.showMessageDialog(this, "Error adding course: " + ex.getMessage());
-        }
+        }, ex -> JOptionPane.showMessageDialog(this, "Error adding course: " + ex.getMessage()));
     }
 
     private void clearFields() {
@@ -236,6 +232,7 @@ public class AddCoursePage extends JPanel {
         lblPreview.setIcon(null);
         dateSpinner.setValue(new Date());
         timeSpinner.setValue(new Date());
+        durationSpinner.setValue(CourseRepository.DEFAULT_DURATION_MINUTES);
         cmbMode.setSelectedIndex(0);
     }
 
@@ -5,12 +5,14 @@ import java.sql.*;
 import java.text.SimpleDateFormat;
 import java.util.Date; 
 
-public class AdminCourseDetailsPage extends JPanel {
+public class AdminCourseDetailsPage extends JPanel implements MainFrame.CachedPage {
     private MainFrame main;
     private String courseId;
     private JLabel lblName, lblDate, lblTime, lblMode;
     private Color primary = new Color(52, 152, 219);
 
+    private final CourseRepository courses = new CourseRepository();
+
     public AdminCourseDetailsPage(MainFrame main, String courseId) {
         this.main = main;
         this.courseId = courseId;
@@ -91,99 +93,50 @@ public class AdminCourseDetailsPage extends JPanel {
         add(buttonPanel, BorderLayout.SOUTH);
     }
 
+    @Override
+    public void reload() {
+        loadDetails();
+    }
+
     private void loadDetails() {
        
         SimpleDateFormat dateFormat = new SimpleDateFormat("EEEE, MMMM d, yyyy");
         SimpleDateFormat timeFormat = new SimpleDateFormat("h:mm a");
 
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement pst = conn.prepareStatement("SELECT * FROM courses WHERE course_id = ?")) {
-            pst.setString(1, courseId);
-            ResultSet rs = pst.executeQuery();
+        UnitOfWork.load(this, "AdminCourseDetailsPage.loadDetails", () -> courses.findById(courseId), found -> {
+            CourseRepository.Course course = found.orElse(null);
             
-            if (rs.next()) {
+            if (course != null) {
                
-                Date sqlDate = rs.getDate("course_date");
-                Date sqlTime = rs.getTime("course_time");
+                Date sqlDate = course.courseDate();
+                Date sqlTime = course.courseTime();
                 
               
                 String formattedDate = (sqlDate != null) ? dateFormat.format(sqlDate) : "N/A";
                 String formattedTime = (sqlTime != null) ? timeFormat.format(sqlTime) : "N/A";
 
              
-                lblName.setText(rs.getString("course_name"));
+                lblName.setText(course.courseName());
                 lblDate.setText("📅 Date: " + formattedDate);
                 lblTime.setText("🕒 Time: " + formattedTime);
-                lblMode.setText("Mode: " + rs.getString("mode"));
+                lblMode.setText("Mode: " + course.mode());
             } else {
                  lblName.setText("Course Not Found");
                  lblDate.setText("");
                  lblTime.setText("");
                  lblMode.setText("");
             }
-        } catch (SQLException ex) {
-            JOptionPane.showMessageDialog(this, "Error loading details: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
+        }, ex -> JOptionPane.showMessageDialog(this, "Error loading details: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE));
     }
 
     private void deleteCourse() {
-        Connection conn = null;
-        try {
-            conn = DBConnection.getConnection();
-            conn.setAutoCommit(false); 
-
-           
-            try (PreparedStatement pstDeleteResults = conn.prepareStatement("DELETE FROM course_results WHERE course_id = ?")) {
-                pstDeleteResults.setString(1, courseId);
-                pstDeleteResults.executeUpdate();
-            }
-
-          
-            try (PreparedStatement pstDeleteAttendance = conn.prepareStatement("DELETE FROM attendance WHERE course_id = ?")) {
-                pstDeleteAttendance.setString(1, courseId);
-                pstDeleteAttendance.executeUpdate();
-            }
-
-           
-            try (PreparedStatement pstDeleteRegistrations = conn.prepareStatement(
-                    "DELETE FROM course_registrations WHERE course_id = ?")) { 
-                pstDeleteRegistrations.setString(1, courseId);
-                pstDeleteRegistrations.executeUpdate();
-            }
-
-          
-            try (PreparedStatement pstDeleteCourse = conn.prepareStatement(
-                    "DELETE FROM courses WHERE course_id = ?")) {
-                pstDeleteCourse.setString(1, courseId);
-                pstDeleteCourse.executeUpdate();
-            }
-
-            conn.commit(); 
-            
-            JOptionPane.showMessageDialog(this, "Course and all related data deleted successfully! ✔️");
-            main.showPage("managecourses");
-            
-        } catch (SQLException ex) {
-           
-            if (conn != null) {
-                try {
-                    conn.rollback();
-                } catch (SQLException rbEx) {
-                    
-                }
+        PurgeProgressDialog.run(this, java.util.List.of(courseId), report -> {
+            if (report != null && report.coursesPurged() > 0) {
+                JOptionPane.showMessageDialog(this, "Course and all related data deleted successfully! ✔️");
+                main.showPage("managecourses");
+                main.discardCoursePages(courseId);
             }
-            JOptionPane.showMessageDialog(this, "Error deleting course: " + ex.getMessage() + "\nDatabase operation failed and was rolled back.", "Deletion Error", JOptionPane.ERROR_MESSAGE);
-        } finally {
-          
-            if (conn != null) {
-                try {
-                    conn.setAutoCommit(true);
-                    conn.close();
-                } catch (SQLException closeEx) {
-                  
-                }
-            }
-        }
+        });
     }
 
     private void styleButton(JButton b, Color bg, Color hover) {
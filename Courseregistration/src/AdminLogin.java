@@ -9,6 +9,8 @@ public class AdminLogin extends JPanel {
     private JButton btnLogin;  
     private MainFrame main;
 
+    private final AdminRepository admins = new AdminRepository();
+
     public AdminLogin(MainFrame main) {
         this.main = main;
         setLayout(new GridBagLayout());
@@ -90,14 +92,8 @@ public class AdminLogin extends JPanel {
             return;
         }
 
-        try (Connection conn = DBConnection.getConnection()) {
-            String sql = "SELECT * FROM admins WHERE username=? AND password=?";
-            PreparedStatement ps = conn.prepareStatement(sql);
-            ps.setString(1, username);
-            ps.setString(2, password);
-            ResultSet rs = ps.executeQuery();
-
-            if (rs.next()) {
+        UnitOfWork.submit(this, "AdminLogin.doLogin", () -> admins.authenticate(username, password), valid -> {
+            if (valid) {
                 clearFields();
                 AdminPage adminPage = new AdminPage(main);
                 main.addPage("adminpage", adminPage);
@@ -106,12 +102,11 @@ public class AdminLogin extends JPanel {
                 JOptionPane.showMessageDialog(this, "Invalid admin credentials!", "Error", JOptionPane.ERROR_MESSAGE);
                 clearFields();
             }
-
-        } catch (SQLException ex) {
+        }, ex -> {
             ex.printStackTrace();
             JOptionPane.showMessageDialog(this, "Database error: " + ex.getMessage());
             clearFields();
-        }
+        });
     }
 
     private void clearFields() {
@@ -78,7 +78,7 @@ public class AdminPage extends JPanel {
                     "Logout Confirmation", JOptionPane.YES_NO_OPTION);
             if (confirm == JOptionPane.YES_OPTION) {
                
-                main.showPage("adminlogin"); 
+                main.logoutAdmin(); 
             }
         });
     }
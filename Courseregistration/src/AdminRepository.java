@@ -0,0 +1,13 @@
+import java.sql.SQLException;
+
+public class AdminRepository extends Repository {
+
+    public boolean authenticate(String username, String password) throws SQLException {
+        return queryOneUncached("SELECT username FROM admins WHERE username = ? AND password = ?",
+                ps -> {
+                    ps.setString(1, username);
+                    ps.setString(2, password);
+                },
+                rs -> rs.getString("username")).isPresent();
+    }
+}
@@ -0,0 +1,114 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class AttendanceRepository extends Repository {
+
+    public record AttendanceMark(String admissionNo, String status) {
+    }
+
+    /** saved marks were written; unknownStudents are admission numbers that matched no student and were skipped. */
+    public record SaveResult(int saved, List<String> unknownStudents) {
+    }
+
+    static final String STATUSES_FOR_DATE_SQL =
+            "SELECT s.admission_no, a.status FROM attendance a " +
+            "JOIN students s ON s.id = a.student_id " +
+            "WHERE a.course_ref = " + COURSE_KEY + " AND a.date_recorded = ?";
+
+    /** Every mark recorded for the course on one date, by admission number. Students without a mark are absent from the map. */
+    public Map<String, String> findStatuses(String courseId, LocalDate date) throws SQLException {
+        Map<String, String> statuses = new HashMap<>();
+        stream(STATUSES_FOR_DATE_SQL,
+                ps -> {
+                    ps.setString(1, courseId);
+                    ps.setObject(2, date);
+                },
+                rs -> new AttendanceMark(rs.getString("admission_no"), rs.getString("status")),
+                mark -> statuses.put(mark.admissionNo(), mark.status()));
+        return statuses;
+    }
+
+    /*
+     * An upsert against uk_attendance_course_student_date. Unlike REPLACE it updates a
+     * recorded mark in place instead of deleting and re-inserting the row. The keys are
+     * bound as plain values, resolved beforehand by KEYS_SQL: a subquery in VALUES would
+     * stop rewriteBatchedStatements from sending the batch as one multi-row INSERT.
+     * The new row is referenced through its alias; VALUES(col) is deprecated in MySQL 8.
+     */
+    static final String SAVE_SQL =
+            "INSERT INTO attendance (course_ref, student_id, date_recorded, status) " +
+            "VALUES (?, ?, ?, ?) AS new " +
+            "ON DUPLICATE KEY UPDATE status = new.status";
+
+    // H2 has no row alias; its MERGE ... KEY is the same upsert.
+    static final String EMBEDDED_SAVE_SQL =
+            "MERGE INTO attendance (course_ref, student_id, date_recorded, status) " +
+            "KEY (course_ref, student_id, date_recorded) VALUES (?, ?, ?, ?)";
+
+    // The course key and the students' keys in one round trip; the IN list gets one ? per mark.
+    private static final String KEYS_SQL =
+            "SELECT c.id AS course_ref, s.id AS student_id, s.admission_no FROM courses c " +
+            "JOIN students s ON s.admission_no IN (%s) " +
+            "WHERE c.course_id = ?";
+
+    private record Keys(int courseRef, int studentId) {
+    }
+
+    /**
+     * Records the given marks for one date; pass only the marks that changed. Marks whose
+     * student (or the course itself) no longer exists are not written but reported back.
+     */
+    public SaveResult saveChanges(String courseId, LocalDate date, List<AttendanceMark> marks) throws SQLException {
+        if (marks.isEmpty()) {
+            return new SaveResult(0, List.of());
+        }
+        return inTransaction(conn -> {
+            Map<String, Keys> keys = findKeys(conn, courseId, marks);
+            List<AttendanceMark> known = new ArrayList<>();
+            List<String> unknown = new ArrayList<>();
+            for (AttendanceMark mark : marks) {
+                if (keys.containsKey(mark.admissionNo())) {
+                    known.add(mark);
+                } else {
+                    unknown.add(mark.admissionNo());
+                }
+            }
+            int saved = batch(conn, DBConnection.isEmbedded() ? EMBEDDED_SAVE_SQL : SAVE_SQL,
+                    known,
+                    (ps, mark) -> {
+                        Keys k = keys.get(mark.admissionNo());
+                        ps.setInt(1, k.courseRef());
+                        ps.setInt(2, k.studentId());
+                        ps.setObject(3, date);
+                        ps.setString(4, mark.status());
+                    });
+            return new SaveResult(saved, unknown);
+        });
+    }
+
+    private Map<String, Keys> findKeys(Connection conn, String courseId, List<AttendanceMark> marks) throws SQLException {
+        Map<String, Keys> keys = new HashMap<>();
+        String sql = String.format(KEYS_SQL, String.join(", ", Collections.nCopies(marks.size(), "?")));
+        try (PreparedStatement ps = prepare(conn, sql)) {
+            int i = 1;
+            for (AttendanceMark mark : marks) {
+                ps.setString(i++, mark.admissionNo());
+            }
+            ps.setString(i, courseId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    keys.put(rs.getString("admission_no"), new Keys(rs.getInt("course_ref"), rs.getInt("student_id")));
+                }
+            }
+        }
+        return keys;
+    }
+}
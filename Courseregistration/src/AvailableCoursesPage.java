@@ -5,7 +5,7 @@ import java.sql.*;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.io.File;
-import java.util.Calendar; 
+import java.util.List;
 public class AvailableCoursesPage extends JPanel {
     private MainFrame main;
     private String studentAdmissionNo;
@@ -13,12 +13,17 @@ public class AvailableCoursesPage extends JPanel {
     private JTabbedPane tabbedPane;
     private JPanel upcomingCoursesPanel;
     private JPanel completedCoursesPanel;
+    private ScrollPager<CourseRepository.AvailableCourse> upcomingPager;
+    private ScrollPager<CourseRepository.AvailableCourse> completedPager;
+    private PagedTabs pagedTabs;
     
     private Color primary = new Color(52, 152, 219);
     private Color primaryDark = new Color(41, 128, 185);
     private final Color SUCCESS_GREEN = new Color(39, 174, 96); 
     private final Color DANGER_RED = new Color(231, 76, 60);    
 
+    private final CourseRepository courses = new CourseRepository();
+
     public AvailableCoursesPage(MainFrame main, String studentAdmissionNo) {
         this.main = main;
         this.studentAdmissionNo = studentAdmissionNo;
@@ -55,6 +60,22 @@ public class AvailableCoursesPage extends JPanel {
         completedScroll.getVerticalScrollBar().setUnitIncrement(16);
         completedScroll.setBorder(BorderFactory.createEmptyBorder());
         tabbedPane.addTab(" Past Courses", completedScroll);
+
+        upcomingPager = new ScrollPager<>(upcomingCoursesPanel, upcomingScroll, "AvailableCoursesPage.loadUpcoming",
+                after -> courses.findAvailableForStudent(studentAdmissionNo, true, after),
+                (rows, first, more) -> showCourses(upcomingCoursesPanel, upcomingScroll, rows, first, true,
+                        "No upcoming courses available for registration."),
+                this::showLoadError);
+        completedPager = new ScrollPager<>(completedCoursesPanel, completedScroll, "AvailableCoursesPage.loadPast",
+                after -> courses.findAvailableForStudent(studentAdmissionNo, false, after),
+                (rows, first, more) -> showCourses(completedCoursesPanel, completedScroll, rows, first, false,
+                        "No past courses are currently available for registration."),
+                this::showLoadError);
+
+        // Upcoming is what students come for; past courses are fetched on first view.
+        pagedTabs = new PagedTabs(tabbedPane);
+        pagedTabs.add(upcomingPager, true);
+        pagedTabs.add(completedPager, false);
         
         add(tabbedPane, BorderLayout.CENTER);
 
@@ -67,8 +88,7 @@ public class AvailableCoursesPage extends JPanel {
         btnBack.addActionListener(e -> main.showPage("dashboard"));
         footer.add(btnBack);
         add(footer, BorderLayout.SOUTH);
-
-        loadCourses();
+        // Nothing is fetched here: MainFrame.showAvailableCoursesPage refreshes the tabs on every show.
     }
     
   
@@ -85,134 +105,46 @@ public class AvailableCoursesPage extends JPanel {
     }
 
     private void loadCourses() {
-        upcomingCoursesPanel.removeAll();
-        completedCoursesPanel.removeAll();
-
-        
-        long currentTimeMillis = System.currentTimeMillis(); 
-
-        
-        String sql = 
-            "SELECT c.* FROM courses c " +
-            "LEFT JOIN course_registrations cr ON c.course_id = cr.course_id " +
-            "AND cr.student_admission_no = ? AND cr.is_cancelled = FALSE " + 
-            "WHERE c.is_deleted = FALSE AND cr.registration_id IS NULL " + 
-            "ORDER BY c.course_date ASC, c.course_time ASC";
-
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setString(1, studentAdmissionNo); 
-
-            try (ResultSet rs = pstmt.executeQuery()) {
-                boolean foundUpcoming = false;
-                boolean foundCompleted = false;
-
-                while (rs.next()) {
-                    String courseId = rs.getString("course_id");
-                    String courseName = rs.getString("course_name");
-                    String mode = rs.getString("mode");
-                    java.util.Date date = rs.getDate("course_date");
-                    java.sql.Time time = rs.getTime("course_time");
-                    String poster = rs.getString("poster");
-
-                   
-                    Calendar courseCalendar = Calendar.getInstance();
-                    courseCalendar.setTime(date); 
-                    
-                  
-                    courseCalendar.setTimeInMillis(date.getTime() + time.getTime()); 
-                    
-                  
-                    long courseEndTimestamp = courseCalendar.getTimeInMillis() + 3600000;
-                    
-                    
-                    boolean isUpcoming = courseEndTimestamp > currentTimeMillis;
-                    
-                   
-                    String finalStatus = "PAST";
-                    if (!isUpcoming) {
-                        
-                        finalStatus = getStudentCourseStatus(conn, courseId);
-                    }
-
-                    JPanel card = createCourseCard(courseId, courseName, date, time, mode, poster, isUpcoming, finalStatus);
+        pagedTabs.refresh();
+    }
 
-                    if (isUpcoming) {
-                        upcomingCoursesPanel.add(card);
-                        upcomingCoursesPanel.add(Box.createVerticalStrut(10)); 
-                        foundUpcoming = true;
-                    } else {
-                        completedCoursesPanel.add(card);
-                        completedCoursesPanel.add(Box.createVerticalStrut(10));
-                        foundCompleted = true;
-                    }
-                }
-                
-                
-                if (!foundUpcoming) {
-                    addNoCourseMessage(upcomingCoursesPanel, "No upcoming courses available for registration.");
-                } else {
-                    upcomingCoursesPanel.add(Box.createVerticalGlue());
-                }
-                
-                if (!foundCompleted) {
-                    addNoCourseMessage(completedCoursesPanel, "No past courses are currently available for registration.");
-                } else {
-                    completedCoursesPanel.add(Box.createVerticalGlue());
-                }
-            }
+    private void showLoadError(Exception ex) {
+        JOptionPane.showMessageDialog(this, "Error loading courses: " + ex.getMessage());
+    }
 
-        } catch (SQLException ex) {
-            JOptionPane.showMessageDialog(this, "Error loading courses: " + ex.getMessage());
+    // Each tab is paged on its own; later pages are appended above the trailing glue.
+    private void showCourses(JPanel panel, JScrollPane scroll, List<CourseRepository.AvailableCourse> rows,
+                             boolean first, boolean upcoming, String emptyMessage) {
+        if (first) {
+            panel.removeAll();
+        } else if (panel.getComponentCount() > 0) {
+            panel.remove(panel.getComponentCount() - 1);
         }
 
-        upcomingCoursesPanel.revalidate();
-        upcomingCoursesPanel.repaint();
-        completedCoursesPanel.revalidate();
-        completedCoursesPanel.repaint();
-        
-       
-        SwingUtilities.invokeLater(() -> {
-            JScrollPane currentScroll = (JScrollPane) tabbedPane.getSelectedComponent();
-            if (currentScroll != null) {
-                currentScroll.getVerticalScrollBar().setValue(0);
-            }
-        });
-    }
-    
-   
-    private String getStudentCourseStatus(Connection conn, String courseId) throws SQLException {
-       
-        String regSql = "SELECT COUNT(*) FROM course_registrations WHERE course_id = ? AND student_admission_no = ?";
-        try (PreparedStatement regPst = conn.prepareStatement(regSql)) {
-            regPst.setString(1, courseId);
-            regPst.setString(2, studentAdmissionNo);
-            
-            try (ResultSet regRs = regPst.executeQuery()) {
-                if (regRs.next() && regRs.getInt(1) == 0) {
-                    
-                    return "EXPIRED"; 
-                }
-            }
+        for (CourseRepository.AvailableCourse available : rows) {
+            CourseRepository.CourseSummary course = available.course();
+            JPanel card = createCourseCard(course.courseId(), course.courseName(), course.courseDate(), course.courseTime(),
+                    course.mode(), course.poster(), course.hasPosterImage(), upcoming, upcoming ? "REGISTER" : available.pastStatus());
+            panel.add(card);
+            panel.add(Box.createVerticalStrut(10)); 
         }
         
         
-        String attSql = "SELECT COUNT(*) FROM attendance WHERE course_id = ? AND admission_no = ? AND status = 'Present'";
-        try (PreparedStatement attPst = conn.prepareStatement(attSql)) {
-            attPst.setString(1, courseId);
-            attPst.setString(2, studentAdmissionNo);
-            
-            try (ResultSet attRs = attPst.executeQuery()) {
-                if (attRs.next() && attRs.getInt(1) > 0) {
-                    return "COMPLETED";
-                }
-            }
+        if (first && rows.isEmpty()) {
+            addNoCourseMessage(panel, emptyMessage);
+        } else {
+            panel.add(Box.createVerticalGlue());
         }
+
+        panel.revalidate();
+        panel.repaint();
         
-        
-        return "ABSENT";
+       
+        if (first) {
+            SwingUtilities.invokeLater(() -> scroll.getVerticalScrollBar().setValue(0));
+        }
     }
+    
 
     private void addNoCourseMessage(JPanel panel, String message) {
         JLabel noCourses = new JLabel(message);
@@ -227,7 +159,7 @@ public class AvailableCoursesPage extends JPanel {
     }
 
    
-    private JPanel createCourseCard(String courseId, String courseName, Date date, Time time, String mode, String poster, boolean isUpcoming, String status) {
+    private JPanel createCourseCard(String courseId, String courseName, Date date, Time time, String mode, String poster, boolean hasPosterImage, boolean isUpcoming, String status) {
         JPanel card = new JPanel(new BorderLayout(15, 0));
         card.setMaximumSize(new Dimension(750, 100)); 
         card.setBorder(BorderFactory.createLineBorder(Color.LIGHT_GRAY, 1));
@@ -250,7 +182,11 @@ public class AvailableCoursesPage extends JPanel {
         lblPoster.setHorizontalAlignment(SwingConstants.CENTER);
         lblPoster.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
         
-        if (poster != null && !poster.trim().isEmpty() && !poster.equals("No file chosen")) {
+        if (hasPosterImage) {
+        
+            PosterCache.loadInto(lblPoster, courseId, 70, 70);
+        
+        } else if (poster != null && !poster.trim().isEmpty() && !poster.equals("No file chosen")) {
              File posterFile = new File("posters/" + poster);
              if (posterFile.exists()) {
                  ImageIcon icon = new ImageIcon(posterFile.getAbsolutePath());
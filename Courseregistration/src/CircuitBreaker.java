@@ -0,0 +1,135 @@
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTransientConnectionException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Trips after db.breaker.failureThreshold consecutive failures to open a connection,
+ * with no successful exchange with the server in between. While
+ * open, callers fail immediately instead of waiting out the driver's connect
+ * timeout, and a background probe closes the breaker again once the database
+ * answers.
+ */
+public final class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN }
+
+    public interface Probe {
+        void run() throws SQLException;
+    }
+
+    /** Thrown instead of touching the database while the breaker is open. */
+    public static final class OpenException extends SQLTransientConnectionException {
+        OpenException(String message) {
+            super(message, "08001");
+        }
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long probeMillis;
+    private final Probe probe;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final List<Consumer<State>> listeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService prober;
+    private volatile State state = State.CLOSED;
+    private volatile String lastError;
+
+    public CircuitBreaker(String name, Probe probe) {
+        this.name = name;
+        this.probe = probe;
+        this.failureThreshold = Math.max(1, DBConfig.getInt("db.breaker.failureThreshold", 3));
+        this.probeMillis = Math.max(100, DBConfig.getLong("db.breaker.probeMillis", 5000));
+        this.prober = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-breaker-" + name + "-probe");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public void checkAvailable() throws OpenException {
+        if (state == State.OPEN) {
+            throw new OpenException("Database unavailable (" + lastError + "); retrying in the background");
+        }
+    }
+
+    /** The server answered a connect or a validation round trip. */
+    public void recordSuccess() {
+        consecutiveFailures.set(0);
+    }
+
+    /** A connection could not be opened; counted only if the server could not be reached at all. */
+    public void recordFailure(SQLException e) {
+        if (e instanceof OpenException || !isConnectivityFailure(e)) {
+            return;
+        }
+        lastError = e.getMessage();
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            open();
+        }
+    }
+
+    public State state() {
+        return state;
+    }
+
+    public void addListener(Consumer<State> listener) {
+        listeners.add(listener);
+    }
+
+    private synchronized void open() {
+        if (state == State.OPEN) {
+            return;
+        }
+        state = State.OPEN;
+        System.err.println("Warning: [" + name + "] circuit opened after " + consecutiveFailures.get()
+                + " failures: " + lastError);
+        notifyListeners();
+        prober.schedule(this::runProbe, probeMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void runProbe() {
+        try {
+            probe.run();
+        } catch (SQLException | RuntimeException e) {
+            lastError = e.getMessage();
+            prober.schedule(this::runProbe, probeMillis, TimeUnit.MILLISECONDS);
+            return;
+        }
+        synchronized (this) {
+            consecutiveFailures.set(0);
+            state = State.CLOSED;
+        }
+        System.err.println("[" + name + "] circuit closed, database reachable again");
+        notifyListeners();
+    }
+
+    private void notifyListeners() {
+        for (Consumer<State> listener : listeners) {
+            listener.accept(state);
+        }
+    }
+
+    /**
+     * Connection refused and link failures, as opposed to SQL errors the server
+     * reported. Query timeouts are not: the server is there, just slow.
+     */
+    public static boolean isConnectivityFailure(Throwable t) {
+        for (Throwable e = t; e != null; e = e.getCause()) {
+            if (e instanceof SQLTransientConnectionException || e instanceof SQLNonTransientConnectionException) {
+                return true;
+            }
+            if (e instanceof SQLException sql && sql.getSQLState() != null && sql.getSQLState().startsWith("08")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,448 @@
+import java.lang.ref.Cleaner;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTransientException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded JDBC connection pool. Callers get a proxy whose close() hands the
+ * physical connection back instead of closing it.
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    /** Told about every real exchange with the server the pool makes on its own: connects and validations. */
+    public interface HealthListener {
+        void reached();
+
+        void connectFailed(SQLException e);
+    }
+
+    public record Stats(int active, int idle, int total, int maxSize, int waiting,
+                        long borrows, long avgWaitMicros, long maxWaitMillis,
+                        long timeouts, long leaks, long evicted) {
+        @Override
+        public String toString() {
+            return String.format("active=%d idle=%d total=%d/%d waiting=%d borrows=%d avgWait=%dus maxWait=%dms timeouts=%d leaks=%d evicted=%d",
+                    active, idle, total, maxSize, waiting, borrows, avgWaitMicros, maxWaitMillis, timeouts, leaks, evicted);
+        }
+    }
+
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    private final String name;
+    private final String url;
+    private final Properties info;
+
+    private final int maxSize;
+    private final int minIdle;
+    private final long borrowTimeoutNanos;
+    private final long idleTimeoutMillis;
+    private final long leakThresholdMillis;
+    private final long validationIntervalMillis;
+    private final int validationTimeoutSeconds;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    private final Set<PooledConnection> borrowed = new HashSet<>();
+    private int total;
+    private int waiting;
+    private boolean closed;
+
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong leakCount = new AtomicLong();
+    private final AtomicLong evictedCount = new AtomicLong();
+
+    private final ScheduledExecutorService housekeeper;
+    private volatile HealthListener healthListener;
+
+    public ConnectionPool(String name, String url, Properties info) {
+        this.name = name;
+        this.url = url;
+        this.info = info;
+        this.maxSize = Math.max(1, DBConfig.getInt("db.pool.maxSize", 10));
+        this.minIdle = Math.min(maxSize, Math.max(0, DBConfig.getInt("db.pool.minIdle", 2)));
+        this.borrowTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(DBConfig.getLong("db.pool.borrowTimeoutMillis", 5000));
+        this.idleTimeoutMillis = DBConfig.getLong("db.pool.idleTimeoutMillis", 300_000);
+        this.leakThresholdMillis = DBConfig.getLong("db.pool.leakThresholdMillis", 30_000);
+        this.validationIntervalMillis = DBConfig.getLong("db.pool.validationIntervalMillis", 500);
+        this.validationTimeoutSeconds = DBConfig.getInt("db.pool.validationTimeoutSeconds", 2);
+
+        housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-" + name + "-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = DBConfig.getLong("db.pool.housekeepingMillis", 5000);
+        housekeeper.scheduleWithFixedDelay(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    public Connection borrow() throws SQLException {
+        long start = System.nanoTime();
+        long deadline = start + borrowTimeoutNanos;
+
+        while (true) {
+            PooledConnection pc = null;
+            boolean create = false;
+
+            lock.lock();
+            try {
+                while (!closed && idle.isEmpty() && total >= maxSize) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        timeoutCount.incrementAndGet();
+                        // Not an 08 state: a saturated pool says nothing about whether the server is reachable.
+                        throw new SQLTransientException("Timed out waiting for a database connection ("
+                                + borrowed.size() + " of " + maxSize + " in use)", "HYT00");
+                    }
+                    waiting++;
+                    try {
+                        available.awaitNanos(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLTransientException("Interrupted while waiting for a database connection", "HY008", e);
+                    } finally {
+                        waiting--;
+                    }
+                }
+                if (closed) {
+                    throw new SQLException("Connection pool '" + name + "' is closed", "08003");
+                }
+                if (!idle.isEmpty()) {
+                    pc = idle.pollFirst();
+                } else {
+                    total++;
+                    create = true;
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (create) {
+                try {
+                    pc = new PooledConnection(DriverManager.getConnection(url, info));
+                } catch (SQLException e) {
+                    discardSlot();
+                    notifyConnectFailed(e);
+                    throw e;
+                } catch (RuntimeException e) {
+                    discardSlot();
+                    throw e;
+                }
+                notifyReached();
+            } else if (!isUsable(pc)) {
+                destroy(pc);
+                continue;
+            }
+
+            pc.borrowedAt = System.currentTimeMillis();
+            pc.borrowSite = leakThresholdMillis > 0 ? new Exception("Connection borrowed here") : null;
+            pc.leakReported = false;
+
+            lock.lock();
+            try {
+                borrowed.add(pc);
+            } finally {
+                lock.unlock();
+            }
+
+            long waited = System.nanoTime() - start;
+            borrowCount.incrementAndGet();
+            totalWaitNanos.addAndGet(waited);
+            maxWaitNanos.accumulateAndGet(waited, Math::max);
+
+            return wrap(pc);
+        }
+    }
+
+    private boolean isUsable(PooledConnection pc) {
+        if (System.currentTimeMillis() - pc.lastReturnedAt < validationIntervalMillis) {
+            return true;
+        }
+        try {
+            if (pc.physical.isValid(validationTimeoutSeconds)) {
+                notifyReached();
+                return true;
+            }
+            return false;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    public void setHealthListener(HealthListener listener) {
+        this.healthListener = listener;
+    }
+
+    private void notifyReached() {
+        HealthListener listener = healthListener;
+        if (listener != null) {
+            listener.reached();
+        }
+    }
+
+    private void notifyConnectFailed(SQLException e) {
+        HealthListener listener = healthListener;
+        if (listener != null) {
+            listener.connectFailed(e);
+        }
+    }
+
+    private Connection wrap(PooledConnection pc) {
+        Lease lease = new Lease(this, pc);
+        Handle handler = new Handle(pc, lease);
+        Connection proxy = (Connection) Proxy.newProxyInstance(
+                ConnectionPool.class.getClassLoader(), new Class<?>[]{Connection.class}, handler);
+        handler.cleanable = CLEANER.register(proxy, lease);
+        return proxy;
+    }
+
+    private void release(PooledConnection pc, List<Statement> statements, boolean reclaimed) {
+        if (reclaimed) {
+            leakCount.incrementAndGet();
+            System.err.println("Warning: [" + name + "] connection was never closed and has been reclaimed after garbage collection.");
+        }
+
+        for (Statement st : statements) {
+            try {
+                st.close();
+            } catch (SQLException ignored) {
+            }
+        }
+
+        boolean healthy;
+        try {
+            if (!pc.physical.getAutoCommit()) {
+                pc.physical.rollback();
+                pc.physical.setAutoCommit(true);
+            }
+            if (pc.physical.isReadOnly()) {
+                pc.physical.setReadOnly(false);
+            }
+            pc.physical.clearWarnings();
+            healthy = !pc.physical.isClosed();
+        } catch (SQLException e) {
+            healthy = false;
+        }
+
+        lock.lock();
+        try {
+            borrowed.remove(pc);
+            if (healthy && !closed) {
+                pc.lastReturnedAt = System.currentTimeMillis();
+                idle.addFirst(pc);
+                available.signal();
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        destroy(pc);
+    }
+
+    private void destroy(PooledConnection pc) {
+        try {
+            pc.physical.close();
+        } catch (SQLException ignored) {
+        }
+        discardSlot();
+    }
+
+    private void discardSlot() {
+        lock.lock();
+        try {
+            total--;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+        List<PooledConnection> expired = new ArrayList<>();
+        List<PooledConnection> leaked = new ArrayList<>();
+
+        lock.lock();
+        try {
+            Iterator<PooledConnection> it = idle.descendingIterator();
+            while (it.hasNext() && idle.size() - expired.size() > minIdle) {
+                PooledConnection pc = it.next();
+                if (now - pc.lastReturnedAt > idleTimeoutMillis) {
+                    expired.add(pc);
+                    it.remove();
+                }
+            }
+            if (leakThresholdMillis > 0) {
+                for (PooledConnection pc : borrowed) {
+                    if (!pc.leakReported && now - pc.borrowedAt > leakThresholdMillis) {
+                        pc.leakReported = true;
+                        leaked.add(pc);
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        for (PooledConnection pc : expired) {
+            evictedCount.incrementAndGet();
+            destroy(pc);
+        }
+        for (PooledConnection pc : leaked) {
+            leakCount.incrementAndGet();
+            System.err.println("Warning: [" + name + "] possible connection leak, held for "
+                    + (now - pc.borrowedAt) + " ms without being closed.");
+            if (pc.borrowSite != null) {
+                pc.borrowSite.printStackTrace();
+            }
+        }
+    }
+
+    public Stats stats() {
+        lock.lock();
+        try {
+            long borrows = borrowCount.get();
+            long avgWaitMicros = borrows == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalWaitNanos.get() / borrows);
+            return new Stats(borrowed.size(), idle.size(), total, maxSize, waiting, borrows, avgWaitMicros,
+                    TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get()), timeoutCount.get(), leakCount.get(), evictedCount.get());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        List<PooledConnection> toClose;
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            toClose = new ArrayList<>(idle);
+            idle.clear();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        housekeeper.shutdownNow();
+        for (PooledConnection pc : toClose) {
+            destroy(pc);
+        }
+    }
+
+    private static final class PooledConnection {
+        final Connection physical;
+        volatile long borrowedAt;
+        volatile long lastReturnedAt;
+        volatile Exception borrowSite;
+        volatile boolean leakReported;
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+            this.lastReturnedAt = System.currentTimeMillis();
+        }
+    }
+
+    /** Returns the connection to the pool, either on close() or when the handle is garbage collected. */
+    private static final class Lease implements Runnable {
+        final ConnectionPool pool;
+        final PooledConnection pc;
+        final List<Statement> statements = new ArrayList<>();
+        volatile boolean closedExplicitly;
+
+        Lease(ConnectionPool pool, PooledConnection pc) {
+            this.pool = pool;
+            this.pc = pc;
+        }
+
+        @Override
+        public void run() {
+            List<Statement> open;
+            synchronized (statements) {
+                open = new ArrayList<>(statements);
+                statements.clear();
+            }
+            pool.release(pc, open, !closedExplicitly);
+        }
+    }
+
+    private static final class Handle implements InvocationHandler {
+        final PooledConnection pc;
+        final Lease lease;
+        volatile Cleaner.Cleanable cleanable;
+        volatile boolean closed;
+
+        Handle(PooledConnection pc, Lease lease) {
+            this.pc = pc;
+            this.lease = lease;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        lease.closedExplicitly = true;
+                        cleanable.clean();
+                    }
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pc.physical + "]";
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    break;
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Connection is closed", "08003");
+            }
+
+            Object result;
+            try {
+                result = method.invoke(pc.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof Statement) {
+                synchronized (lease.statements) {
+                    lease.statements.add((Statement) result);
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -6,14 +6,21 @@ import java.sql.*;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.Vector;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.HashMap;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.concurrent.TimeUnit; 
 
 public class CourseAttendancePage extends JPanel {
     private MainFrame main;
     private JTextField txtCourseSearch;
     private JTable table;
-    private DefaultTableModel model;
+    private AttendanceTableModel model;
     private JLabel lblStatus;
+    private JLabel lblDate;
     private Date attendanceDate;
     private String currentCourseId = null;
     private String currentCourseName = null;
@@ -23,6 +30,11 @@ public class CourseAttendancePage extends JPanel {
     private Color success = new Color(46, 204, 113);
     private Color error = new Color(231, 76, 60);
 
+    private final CourseRepository courses = new CourseRepository();
+    private final RegistrationRepository registrations = new RegistrationRepository();
+    private final AttendanceRepository attendance = new AttendanceRepository();
+    private final ResultRepository results = new ResultRepository();
+
     public CourseAttendancePage(MainFrame main) {
         this.main = main;
         this.attendanceDate = new Date(); 
@@ -45,7 +57,7 @@ public class CourseAttendancePage extends JPanel {
         lblTitle.setForeground(Color.WHITE);
         titlePanel.add(lblTitle);
         
-        JLabel lblDate = new JLabel("Date: " + new SimpleDateFormat("yyyy-MM-dd").format(attendanceDate));
+        lblDate = new JLabel("Date: " + new SimpleDateFormat("yyyy-MM-dd").format(attendanceDate));
         lblDate.setFont(new Font("Segoe UI", Font.PLAIN, 16));
         lblDate.setForeground(Color.WHITE);
         titlePanel.add(lblDate);
@@ -64,9 +76,14 @@ public class CourseAttendancePage extends JPanel {
         styleSearchButton(btnSearch, new Color(241, 196, 15), new Color(243, 156, 18));
         btnSearch.addActionListener(e -> searchCoursesForSelection(txtCourseSearch.getText())); // 🎯 MODIFIED ACTION
 
+        JButton btnDate = new JButton("Change Date");
+        styleSearchButton(btnDate, new Color(241, 196, 15), new Color(243, 156, 18));
+        btnDate.addActionListener(e -> promptForDate());
+
         searchPanel.add(new JLabel("Course ID/Name: ")).setForeground(Color.WHITE);
         searchPanel.add(txtCourseSearch);
         searchPanel.add(btnSearch);
+        searchPanel.add(btnDate);
         
         topPanel.add(searchPanel, BorderLayout.CENTER);
         add(topPanel, BorderLayout.NORTH);
@@ -74,13 +91,7 @@ public class CourseAttendancePage extends JPanel {
       
         String[] columns = {"Admission No", "Full Name", "Class No", "Status"};
         
-        model = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-               
-                return column == 3; 
-            }
-        };
+        model = new AttendanceTableModel(columns);
         
         table = new JTable(model);
         table.setRowHeight(30);
@@ -145,20 +156,10 @@ public class CourseAttendancePage extends JPanel {
         currentCourseId = null;
         lblStatus.setText("Searching for '" + searchTerm + "'...");
 
-        try (Connection conn = DBConnection.getConnection()) {
-           
-            String sql = "SELECT course_id, course_name FROM courses WHERE is_deleted = FALSE AND (LOWER(course_id) LIKE ? OR LOWER(course_name) LIKE ?)";
-            PreparedStatement pst = conn.prepareStatement(sql);
-            
-            String likeTerm = "%" + searchTerm.trim().toLowerCase() + "%";
-            pst.setString(1, likeTerm); 
-            pst.setString(2, likeTerm); 
-            
-            ResultSet rs = pst.executeQuery();
-            
+        UnitOfWork.load(this, "CourseAttendancePage.searchCourses", () -> courses.searchActive(searchTerm), found -> {
             Vector<CourseOption> courseOptions = new Vector<>();
-            while (rs.next()) {
-                courseOptions.add(new CourseOption(rs.getString("course_id"), rs.getString("course_name")));
+            for (CourseRepository.CourseOption option : found) {
+                courseOptions.add(new CourseOption(option.courseId(), option.courseName()));
             }
 
             if (courseOptions.isEmpty()) {
@@ -171,10 +172,10 @@ public class CourseAttendancePage extends JPanel {
               
                 showCourseSelectionDialog(courseOptions);
             }
-        } catch (SQLException ex) {
+        }, ex -> {
             lblStatus.setText("Database error during course search.");
             ex.printStackTrace();
-        }
+        });
     }
     
     private void showCourseSelectionDialog(Vector<CourseOption> courseOptions) {
@@ -221,122 +222,145 @@ public class CourseAttendancePage extends JPanel {
         
         model.setRowCount(0);
 
-        try (Connection conn = DBConnection.getConnection();
-            
-             PreparedStatement pst = conn.prepareStatement(
-                 "SELECT s.admission_no, s.full_name, s.class_no FROM students s " +
-                 "JOIN course_registrations cr ON s.admission_no = cr.student_admission_no " +
-                 "WHERE cr.course_id = ? AND cr.is_cancelled = FALSE " +
-                 "ORDER BY s.full_name")) {
-
-            pst.setString(1, currentCourseId);
-            ResultSet rs = pst.executeQuery();
-
-            while (rs.next()) {
-                String admissionNo = rs.getString("admission_no");
-                String fullName = rs.getString("full_name");
-                String classNo = rs.getString("class_no"); 
-                
-                String existingStatus = getExistingAttendance(admissionNo, currentCourseId);
+        String courseId = currentCourseId;
+        LocalDate date = attendanceLocalDate();
+        // Roster and status loads are owned by the table, so a newer one supersedes the last.
+        UnitOfWork.load(table, "CourseAttendancePage.loadStudents", () -> {
+            List<RegistrationRepository.RosterEntry> roster = new ArrayList<>();
+            registrations.streamRoster(courseId, date, roster::add);
+            return roster;
+        }, roster -> {
+            for (RegistrationRepository.RosterEntry student : roster) {
+                String existingStatus = student.attendanceStatus();
                 
               
-                model.addRow(new Object[]{
-                    admissionNo,
-                    fullName,
-                    classNo, 
-                    existingStatus.isEmpty() ? "Present" : existingStatus
-                });
+                model.addStudent(student.admissionNo(), student.fullName(), student.classNo(), existingStatus);
             }
             lblStatus.setText("Loaded " + model.getRowCount() + " students for attendance.");
-
-        } catch (SQLException ex) {
+            if (!date.equals(attendanceLocalDate())) {
+                setAttendanceDate(attendanceDate);
+            }
+        }, ex -> {
             lblStatus.setText("Error loading student list. Check DB connection/schema.");
             ex.printStackTrace();
-        }
+        });
     }
     
-  
-    private String getExistingAttendance(String admissionNo, String courseId) {
-        String status = "";
-        String dateString = new SimpleDateFormat("yyyy-MM-dd").format(attendanceDate);
-        
-        try (Connection conn = DBConnection.getConnection();
-              PreparedStatement pst = conn.prepareStatement(
-                  "SELECT status FROM attendance WHERE course_id = ? AND admission_no = ? AND date_recorded = ?")) {
-            
-            pst.setString(1, courseId);
-            pst.setString(2, admissionNo);
-            pst.setString(3, dateString);
-            
-            ResultSet rs = pst.executeQuery();
-            if (rs.next()) {
-                status = rs.getString("status");
+    private void promptForDate() {
+        SimpleDateFormat df = new SimpleDateFormat("yyyy-MM-dd");
+        df.setLenient(false);
+        String input = JOptionPane.showInputDialog(this, "Attendance date (yyyy-MM-dd):", df.format(attendanceDate));
+        if (input == null || input.trim().isEmpty()) {
+            return;
+        }
+        try {
+            Date chosen = df.parse(input.trim());
+            confirmUnsavedEdits(() -> setAttendanceDate(chosen));
+        } catch (java.text.ParseException ex) {
+            JOptionPane.showMessageDialog(this, "Please enter the date as yyyy-MM-dd.", "Invalid Date", JOptionPane.WARNING_MESSAGE);
+        }
+    }
+
+    /**
+     * Runs proceed once the marks edited on the current date are saved or the user
+     * chose to discard them. Cancel keeps the current date and edits.
+     */
+    private void confirmUnsavedEdits(Runnable proceed) {
+        if (table.isEditing()) {
+            table.getCellEditor().stopCellEditing();
+        }
+        if (!model.hasEdits()) {
+            proceed.run();
+            return;
+        }
+        int choice = JOptionPane.showConfirmDialog(this,
+                "Save the attendance changes for " + new SimpleDateFormat("yyyy-MM-dd").format(attendanceDate)
+                        + " before switching dates?",
+                "Unsaved Attendance", JOptionPane.YES_NO_CANCEL_OPTION, JOptionPane.WARNING_MESSAGE);
+        if (choice == JOptionPane.YES_OPTION) {
+            saveAttendance(proceed);
+        } else if (choice == JOptionPane.NO_OPTION) {
+            proceed.run();
+        }
+    }
+
+    /** Switches the date being recorded. The loaded roster is kept; only the Status column is re-read. */
+    public void setAttendanceDate(Date date) {
+        attendanceDate = date;
+        lblDate.setText("Date: " + new SimpleDateFormat("yyyy-MM-dd").format(attendanceDate));
+        if (currentCourseId == null || model.getRowCount() == 0) {
+            return;
+        }
+        if (table.isEditing()) {
+            table.getCellEditor().cancelCellEditing();
+        }
+
+        String courseId = currentCourseId;
+        LocalDate day = attendanceLocalDate();
+        UnitOfWork.load(table, "CourseAttendancePage.loadStatuses", () -> attendance.findStatuses(courseId, day), statuses -> {
+            for (int i = 0; i < model.getRowCount(); i++) {
+                model.setRecorded(i, statuses.get((String) model.getValueAt(i, 0)));
             }
-        } catch (SQLException ex) {
+            lblStatus.setText("Showing attendance for " + new SimpleDateFormat("yyyy-MM-dd").format(attendanceDate)
+                    + " (" + statuses.size() + " recorded).");
+        }, ex -> {
+            lblStatus.setText("Error loading attendance for the selected date.");
             ex.printStackTrace();
-        }
-        return status;
+        });
+    }
+
+    private LocalDate attendanceLocalDate() {
+        return attendanceDate.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
     }
 
     private void saveAttendance() {
+        saveAttendance(null);
+    }
+
+    /** afterSave, if not null, runs once the save has succeeded. */
+    private void saveAttendance(Runnable afterSave) {
         if (currentCourseId == null || model.getRowCount() == 0) {
             JOptionPane.showMessageDialog(this, "Please load a course with students before saving.", "Error", JOptionPane.ERROR_MESSAGE);
             return;
         }
 
-        String dateString = new SimpleDateFormat("yyyy-MM-dd").format(attendanceDate);
-        Connection conn = null;
-        int savedCount = 0;
-
-        try {
-            conn = DBConnection.getConnection();
-            conn.setAutoCommit(false);
-            
-       
-            String sql = "REPLACE INTO attendance (course_id, admission_no, date_recorded, status) VALUES (?, ?, ?, ?)";
-            PreparedStatement pst = conn.prepareStatement(sql);
+        if (table.isEditing()) {
+            table.getCellEditor().stopCellEditing();
+        }
 
-            for (int i = 0; i < model.getRowCount(); i++) {
-                String admissionNo = (String) model.getValueAt(i, 0);
-                String status = (String) model.getValueAt(i, 3);
+        List<AttendanceRepository.AttendanceMark> marks = model.changedMarks();
+        if (marks.isEmpty()) {
+            lblStatus.setText("No attendance changes to save.");
+            return;
+        }
 
-                pst.setString(1, currentCourseId);
-                pst.setString(2, admissionNo);
-                pst.setString(3, dateString);
-                pst.setString(4, status);
-                
-                pst.addBatch();
+        String courseId = currentCourseId;
+        LocalDate date = attendanceLocalDate();
+        lblStatus.setText("Saving attendance...");
+        UnitOfWork.submit(this, "CourseAttendancePage.saveAttendance", () -> attendance.saveChanges(courseId, date, marks), result -> {
+            List<AttendanceRepository.AttendanceMark> saved = marks.stream()
+                    .filter(mark -> !result.unknownStudents().contains(mark.admissionNo()))
+                    .toList();
+            // The roster or date may have been switched while the save was running.
+            if (courseId.equals(currentCourseId) && date.equals(attendanceLocalDate())) {
+                model.markSaved(saved);
             }
-            
-            int[] results = pst.executeBatch();
-            for (int result : results) {
-                if (result >= 0) savedCount++;
+            lblStatus.setText("Successfully saved attendance for " + result.saved() + " students.");
+            if (result.unknownStudents().isEmpty()) {
+                JOptionPane.showMessageDialog(this, "Attendance successfully saved/updated!", "Success", JOptionPane.INFORMATION_MESSAGE);
+            } else {
+                JOptionPane.showMessageDialog(this, "Saved attendance for " + result.saved() + " students, but these "
+                                + "admission numbers no longer match a student and were not saved:\n"
+                                + String.join(", ", result.unknownStudents()),
+                        "Attendance Partly Saved", JOptionPane.WARNING_MESSAGE);
             }
-
-            conn.commit();
-            lblStatus.setText("Successfully saved attendance for " + savedCount + " students.");
-            JOptionPane.showMessageDialog(this, "Attendance successfully saved/updated!", "Success", JOptionPane.INFORMATION_MESSAGE);
-
-        } catch (SQLException ex) {
-            if (conn != null) {
-                try {
-                    conn.rollback();
-                } catch (SQLException rbEx) {
-                    
-                }
+            if (afterSave != null) {
+                afterSave.run();
             }
+        }, ex -> {
             lblStatus.setText("Failed to save attendance. Database error.");
             JOptionPane.showMessageDialog(this, "Failed to save attendance: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
-        } finally {
-            if (conn != null) {
-                try {
-                    conn.setAutoCommit(true);
-                    conn.close();
-                } catch (SQLException closeEx) {
-                   
-                }
-            }
-        }
+        });
     }
     
    
@@ -346,77 +370,56 @@ public class CourseAttendancePage extends JPanel {
             return;
         }
 
-        int confirm = JOptionPane.showConfirmDialog(this,
-                "This will finalize all student outcomes for course " + currentCourseId + " based on attendance. This makes results permanent and available for certification. Continue?",
-                "Confirm Finalization", JOptionPane.YES_NO_OPTION);
+        String courseId = currentCourseId;
+        UnitOfWork.load(this, "CourseAttendancePage.loadCompletionRule", () -> results.findMinAttendancePercent(courseId),
+                currentRule -> confirmFinalization(courseId, currentRule), ex -> {
+            lblStatus.setText("Database error during finalization.");
+            JOptionPane.showMessageDialog(this, "Database error during finalization: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        });
+    }
 
-        if (confirm != JOptionPane.YES_OPTION) {
+    private void confirmFinalization(String courseId, int currentRule) {
+        String input = (String) JOptionPane.showInputDialog(this,
+                "This will finalize all student outcomes for course " + courseId + " based on attendance. This makes results permanent and available for certification.\n\n"
+                        + "Minimum attendance (% of recorded days) to complete the course:",
+                "Confirm Finalization", JOptionPane.QUESTION_MESSAGE, null, null, String.valueOf(currentRule));
+
+        if (input == null) {
             return;
         }
 
-        Connection conn = null;
-        int finalizedCount = 0;
-
+        int minPercent;
         try {
-            conn = DBConnection.getConnection();
-            conn.setAutoCommit(false);
-            
-            
-            String selectStudentsSql = 
-                "SELECT DISTINCT admission_no FROM attendance " +
-                "WHERE course_id = ? AND status = 'Present'";
-            
-          
-            String upsertSql = 
-                "REPLACE INTO course_results (admission_no, course_id, status, completion_date) " +
-                "VALUES (?, ?, 'Completed', CURRENT_DATE())"; 
-
-            PreparedStatement selectPst = conn.prepareStatement(selectStudentsSql);
-            PreparedStatement upsertPst = conn.prepareStatement(upsertSql);
-            
-            selectPst.setString(1, currentCourseId);
-            
-            try (ResultSet rs = selectPst.executeQuery()) {
-                while (rs.next()) {
-                    String admissionNo = rs.getString("admission_no");
-                    
-                    upsertPst.setString(1, admissionNo);
-                    upsertPst.setString(2, currentCourseId);
-                    upsertPst.addBatch();
-                    finalizedCount++;
-                }
-            }
-            
-            if (finalizedCount > 0) {
-                upsertPst.executeBatch();
-                conn.commit();
-                lblStatus.setText("Results finalized: " + finalizedCount + " students completed.");
-                JOptionPane.showMessageDialog(this, finalizedCount + " student results finalized to 'Completed' for certification!", "Success", JOptionPane.INFORMATION_MESSAGE);
-            } else {
-                conn.rollback();
-                lblStatus.setText("Results finalized: 0 students completed (no 'Present' records found).");
-                JOptionPane.showMessageDialog(this, "No students found with 'Present' attendance to finalize.", "Warning", JOptionPane.WARNING_MESSAGE);
-            }
-
-        } catch (SQLException ex) {
-            if (conn != null) {
-                try {
-                    conn.rollback();
-                } catch (SQLException rbEx) {
-                   
-                }
+            minPercent = Integer.parseInt(input.trim());
+        } catch (NumberFormatException ex) {
+            minPercent = -1;
+        }
+        if (minPercent < 0 || minPercent > 100) {
+            JOptionPane.showMessageDialog(this, "Please enter a percentage between 0 and 100.", "Invalid Rule", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        int rule = minPercent;
+        UnitOfWork.submit(this, "CourseAttendancePage.finalizeResults", () -> {
+            if (rule != currentRule) {
+                results.setMinAttendancePercent(courseId, rule);
             }
+            return results.finalizeResults(courseId);
+        }, summary -> showFinalization(summary, rule), ex -> {
             lblStatus.setText("Database error during finalization.");
             JOptionPane.showMessageDialog(this, "Database error during finalization: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-        } finally {
-            if (conn != null) {
-                try {
-                    conn.setAutoCommit(true);
-                    conn.close();
-                } catch (SQLException closeEx) {
-                   
-                }
-            }
+        });
+    }
+
+    private void showFinalization(ResultRepository.FinalizationSummary summary, int minPercent) {
+        int finalizedCount = summary.completed() + summary.failed();
+        
+        if (finalizedCount > 0) {
+            lblStatus.setText("Results finalized: " + summary.completed() + " completed, " + summary.failed() + " failed.");
+            JOptionPane.showMessageDialog(this, summary.completed() + " student(s) finalized to 'Completed' for certification, "
+                    + summary.failed() + " marked 'Failed' (below " + minPercent + "% attendance).", "Success", JOptionPane.INFORMATION_MESSAGE);
+        } else {
+            lblStatus.setText("Results finalized: no attendance has been recorded for this course yet.");
+            JOptionPane.showMessageDialog(this, "No attendance has been recorded for this course yet, so there is nothing to finalize.", "Warning", JOptionPane.WARNING_MESSAGE);
         }
     }
     
@@ -453,6 +456,79 @@ public class CourseAttendancePage extends JPanel {
         });
     }
     
+    /**
+     * The roster plus, per row, the status stored for the selected date when it was
+     * last loaded or saved (null while nothing is recorded). Rows whose Status differs
+     * from it are the only ones a save sends; a row never recorded always differs,
+     * since its "Present" is only the default shown.
+     */
+    private static class AttendanceTableModel extends DefaultTableModel {
+        private final List<String> recorded = new ArrayList<>();
+
+        AttendanceTableModel(String[] columns) {
+            super(columns, 0);
+        }
+
+        @Override
+        public boolean isCellEditable(int row, int column) {
+            return column == 3;
+        }
+
+        @Override
+        public void setRowCount(int rowCount) {
+            super.setRowCount(rowCount);
+            while (recorded.size() > rowCount) {
+                recorded.remove(recorded.size() - 1);
+            }
+        }
+
+        void addStudent(String admissionNo, String fullName, String classNo, String recordedStatus) {
+            recorded.add(recordedStatus);
+            addRow(new Object[]{admissionNo, fullName, classNo, recordedStatus == null ? "Present" : recordedStatus});
+        }
+
+        /** Replaces a row's stored status, e.g. after switching dates, and shows it. */
+        void setRecorded(int row, String recordedStatus) {
+            recorded.set(row, recordedStatus);
+            setValueAt(recordedStatus == null ? "Present" : recordedStatus, row, 3);
+        }
+
+        /** Whether any Status was changed from what was loaded; an unrecorded row still showing its default is not an edit. */
+        boolean hasEdits() {
+            for (int i = 0; i < getRowCount(); i++) {
+                String shown = recorded.get(i) == null ? "Present" : recorded.get(i);
+                if (!shown.equals(getValueAt(i, 3))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        List<AttendanceRepository.AttendanceMark> changedMarks() {
+            List<AttendanceRepository.AttendanceMark> marks = new ArrayList<>();
+            for (int i = 0; i < getRowCount(); i++) {
+                String status = (String) getValueAt(i, 3);
+                if (!status.equals(recorded.get(i))) {
+                    marks.add(new AttendanceRepository.AttendanceMark((String) getValueAt(i, 0), status));
+                }
+            }
+            return marks;
+        }
+
+        /** Call after a successful save: the saved marks are now what is stored, whatever was edited since. */
+        void markSaved(List<AttendanceRepository.AttendanceMark> marks) {
+            Map<String, String> saved = new HashMap<>();
+            for (AttendanceRepository.AttendanceMark mark : marks) {
+                saved.put(mark.admissionNo(), mark.status());
+            }
+            for (int i = 0; i < getRowCount(); i++) {
+                String status = saved.get((String) getValueAt(i, 0));
+                if (status != null) {
+                    recorded.set(i, status);
+                }
+            }
+        }
+    }
   
     private static class CourseOption {
         String id;
@@ -5,15 +5,21 @@ import java.sql.*;
 import java.text.SimpleDateFormat;
 import java.io.File; 
 
-public class CourseDetailsPage extends JPanel {
+public class CourseDetailsPage extends JPanel implements MainFrame.CachedPage {
     private MainFrame main;
     private String courseId;
     private String studentAdmissionNo;
     private JButton btnRegister;
+    private JLabel lblEnrolled;
+    private int enrolledCount;
+    private Runnable loadDetails;
  
     private final Color SUCCESS_GREEN = new Color(46, 204, 113);
     private final Color PRIMARY_BLUE = new Color(52, 152, 219);
 
+    private final CourseRepository courses = new CourseRepository();
+    private final RegistrationRepository registrations = new RegistrationRepository();
+
     public CourseDetailsPage(MainFrame main, String courseId, String studentAdmissionNo) {
         this.main = main;
         this.courseId = courseId;
@@ -42,7 +48,7 @@ public class CourseDetailsPage extends JPanel {
         JPanel content = new JPanel();
         content.setLayout(new BoxLayout(content, BoxLayout.Y_AXIS));
         content.setBorder(BorderFactory.createEmptyBorder(20, 50, 20, 50));
-        content.setBackground(new Color(245, 247, 250)); /
+        content.setBackground(new Color(245, 247, 250));
 
       
         JLabel lblPoster = new JLabel();
@@ -66,6 +72,10 @@ public class CourseDetailsPage extends JPanel {
         lblMode.setFont(new Font("Segoe UI", Font.PLAIN, 16));
         lblMode.setAlignmentX(Component.CENTER_ALIGNMENT);
 
+        lblEnrolled = new JLabel();
+        lblEnrolled.setFont(new Font("Segoe UI", Font.PLAIN, 16));
+        lblEnrolled.setAlignmentX(Component.CENTER_ALIGNMENT);
+
        
         JTextArea txtDescription = new JTextArea(10, 40); 
         txtDescription.setLineWrap(true);
@@ -82,6 +92,7 @@ public class CourseDetailsPage extends JPanel {
         content.add(lblDate);
         content.add(lblTime);
         content.add(lblMode);
+        content.add(lblEnrolled);
         content.add(Box.createVerticalStrut(20));
         content.add(new JScrollPane(txtDescription));
 
@@ -102,6 +113,7 @@ public class CourseDetailsPage extends JPanel {
 
         btnRegister = new JButton("Register");
         styleButton(btnRegister, primary, primary.darker());
+        btnRegister.setEnabled(false);
         btnRegister.addActionListener(e -> registerForCourse());
 
         footer.add(btnBack);
@@ -110,131 +122,142 @@ public class CourseDetailsPage extends JPanel {
         add(footer, BorderLayout.SOUTH);
 
       
-        loadCourseDetails(lblPoster, lblName, lblDate, lblTime, lblMode, txtDescription);
-        checkIfAlreadyRegistered();
+        loadDetails = () -> loadCourseDetails(lblPoster, lblName, lblDate, lblTime, lblMode, txtDescription);
+        loadDetails.run();
+    }
+
+    // The head count and registration state change as other students register.
+    @Override
+    public void reload() {
+        loadDetails.run();
     }
 
+    // Course, registration state and head count arrive together, off the EDT.
     private void loadCourseDetails(JLabel lblPoster, JLabel lblName, JLabel lblDate,
                                    JLabel lblTime, JLabel lblMode, JTextArea txtDescription) {
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement pst = conn.prepareStatement("SELECT * FROM courses WHERE course_id = ?")) {
-            pst.setString(1, courseId);
-            ResultSet rs = pst.executeQuery();
-            if (rs.next()) {
-                lblName.setText(rs.getString("course_name"));
-
-                java.util.Date date = rs.getDate("course_date");
-                java.sql.Time time = rs.getTime("course_time");
-                SimpleDateFormat df = new SimpleDateFormat("MMM dd, yyyy"); 
-                SimpleDateFormat tf = new SimpleDateFormat("hh:mm a");       
-                lblDate.setText(" Date: " + df.format(date));
-                lblTime.setText(" Time: " + tf.format(time));
-                lblMode.setText("Mode: " + rs.getString("mode"));
-
-                txtDescription.setText(rs.getString("description"));
-
-                String poster = rs.getString("poster");
-
-               
-                if (poster != null && !poster.equals("No file chosen")) {
-                    File posterFile = new File("posters/" + poster);
-                    if (posterFile.exists()) {
-                        ImageIcon icon = new ImageIcon(posterFile.getAbsolutePath());
-                        Image img = icon.getImage();
-
-                        int originalWidth = icon.getIconWidth();
-                        int originalHeight = icon.getIconHeight();
-
-                        int maxWidth = 700;
-                        int maxHeight = 500;
-                        int newWidth = originalWidth;
-                        int newHeight = originalHeight;
-
-                        if (originalWidth > maxWidth || originalHeight > maxHeight) {
-                            double widthRatio = (double) maxWidth / originalWidth;
-                            double heightRatio = (double) maxHeight / originalHeight;
-                            double ratio = Math.min(widthRatio, heightRatio);
-
-                            newWidth = (int) (originalWidth * ratio);
-                            newHeight = (int) (originalHeight * ratio);
-
-                            Image scaledImg = img.getScaledInstance(newWidth, newHeight, Image.SCALE_SMOOTH);
-                            lblPoster.setIcon(new ImageIcon(scaledImg));
-                        } else {
-                            lblPoster.setIcon(icon);
-                        }
-
-                        lblPoster.setPreferredSize(new Dimension(newWidth, newHeight));
-
+        UnitOfWork.load(this, "CourseDetailsPage.loadCourseDetails",
+                () -> courses.findForStudent(courseId, studentAdmissionNo),
+                details -> {
+                    if (details.isPresent()) {
+                        showCourseDetails(details.get().course(), lblPoster, lblName, lblDate, lblTime, lblMode, txtDescription);
+                        enrolledCount = details.get().enrolledCount();
+                        showEnrolledCount();
+                        showRegistered(details.get().registered());
                     } else {
-                        lblPoster.setText("Poster File Not Found");
-                        lblPoster.setPreferredSize(new Dimension(400, 100));
+                        lblName.setText("Course not found.");
                     }
+                },
+                ex -> JOptionPane.showMessageDialog(this, "Error loading course details: " + ex.getMessage()));
+    }
+
+    private void showCourseDetails(CourseRepository.Course course, JLabel lblPoster, JLabel lblName, JLabel lblDate,
+                                   JLabel lblTime, JLabel lblMode, JTextArea txtDescription) {
+        lblName.setText(course.courseName());
+
+        java.util.Date date = course.courseDate();
+        java.sql.Time time = course.courseTime();
+        SimpleDateFormat df = new SimpleDateFormat("MMM dd, yyyy"); 
+        SimpleDateFormat tf = new SimpleDateFormat("hh:mm a");       
+        lblDate.setText(" Date: " + df.format(date));
+        lblTime.setText(" Time: " + tf.format(time));
+        lblMode.setText("Mode: " + course.mode());
+
+        txtDescription.setText(course.description());
+
+        String poster = course.poster();
+
+       
+        if (course.hasPosterImage()) {
+            PosterCache.loadInto(lblPoster, courseId, 700, 500);
+        } else if (poster != null && !poster.equals("No file chosen")) {
+            File posterFile = new File("posters/" + poster);
+            if (posterFile.exists()) {
+                ImageIcon icon = new ImageIcon(posterFile.getAbsolutePath());
+                Image img = icon.getImage();
+
+                int originalWidth = icon.getIconWidth();
+                int originalHeight = icon.getIconHeight();
+
+                int maxWidth = 700;
+                int maxHeight = 500;
+                int newWidth = originalWidth;
+                int newHeight = originalHeight;
+
+                if (originalWidth > maxWidth || originalHeight > maxHeight) {
+                    double widthRatio = (double) maxWidth / originalWidth;
+                    double heightRatio = (double) maxHeight / originalHeight;
+                    double ratio = Math.min(widthRatio, heightRatio);
+
+                    newWidth = (int) (originalWidth * ratio);
+                    newHeight = (int) (originalHeight * ratio);
+
+                    Image scaledImg = img.getScaledInstance(newWidth, newHeight, Image.SCALE_SMOOTH);
+                    lblPoster.setIcon(new ImageIcon(scaledImg));
                 } else {
-                    lblPoster.setText("No Poster Available");
-                    lblPoster.setPreferredSize(new Dimension(400, 100));
+                    lblPoster.setIcon(icon);
                 }
 
+                lblPoster.setPreferredSize(new Dimension(newWidth, newHeight));
+
+            } else {
+                lblPoster.setText("Poster File Not Found");
+                lblPoster.setPreferredSize(new Dimension(400, 100));
             }
-        } catch (SQLException ex) {
-            JOptionPane.showMessageDialog(this, "Error loading course details: " + ex.getMessage());
+        } else {
+            lblPoster.setText("No Poster Available");
+            lblPoster.setPreferredSize(new Dimension(400, 100));
         }
     }
 
-   
-    private void checkIfAlreadyRegistered() {
-        String sql = "SELECT * FROM course_registrations WHERE student_admission_no = ? AND course_id = ? AND is_cancelled = FALSE";
-
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement pst = conn.prepareStatement(sql)) {
-            pst.setString(1, studentAdmissionNo);
-            pst.setString(2, courseId);
-            ResultSet rs = pst.executeQuery();
-
-            if (rs.next()) {
-               
-                btnRegister.setEnabled(false);
-                btnRegister.setText("Already Registered ✅");
-                btnRegister.setBackground(SUCCESS_GREEN);
-                btnRegister.setCursor(Cursor.getDefaultCursor());
-            } else {
-               
-                btnRegister.setEnabled(true);
-                btnRegister.setText("Register");
-                btnRegister.setBackground(PRIMARY_BLUE);
-                btnRegister.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
-            }
-        } catch (SQLException ex) {
-            JOptionPane.showMessageDialog(this, "Error checking registration status: " + ex.getMessage());
+    private void showEnrolledCount() {
+        lblEnrolled.setText("Enrolled: " + enrolledCount + (enrolledCount == 1 ? " student" : " students"));
+    }
+
+    private void showRegistered(boolean registered) {
+        if (registered) {
+           
+            btnRegister.setEnabled(false);
+            btnRegister.setText("Already Registered ✅");
+            btnRegister.setBackground(SUCCESS_GREEN);
+            btnRegister.setCursor(Cursor.getDefaultCursor());
+        } else {
+           
+            btnRegister.setEnabled(true);
+            btnRegister.setText("Register");
+            btnRegister.setBackground(PRIMARY_BLUE);
+            btnRegister.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
         }
     }
 
   
     private void registerForCourse() {
-        String sql = "INSERT INTO course_registrations (student_admission_no, course_id, is_cancelled) VALUES (?, ?, FALSE)";
-
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement pst = conn.prepareStatement(sql)) {
-            pst.setString(1, studentAdmissionNo);
-            pst.setString(2, courseId);
-            pst.executeUpdate();
+        UnitOfWork.submit(this, "CourseDetailsPage.registerForCourse", () -> registrations.register(studentAdmissionNo, courseId), state -> {
+            if (state != RegistrationRepository.RegistrationState.ALREADY_REGISTERED) {
+                enrolledCount++;
+                showEnrolledCount();
+            }
 
-            JOptionPane.showMessageDialog(this, "You have successfully registered for this course! 🎉");
+            switch (state) {
+                case REGISTERED -> JOptionPane.showMessageDialog(this, "You have successfully registered for this course! 🎉");
+                case REACTIVATED -> JOptionPane.showMessageDialog(this, "Your registration for this course has been restored! 🎉");
+                case ALREADY_REGISTERED -> JOptionPane.showMessageDialog(this, "You are already registered for this course.");
+            }
             
            
-            checkIfAlreadyRegistered(); 
+            showRegistered(true);
 
            
             if (main.getAvailableCoursesPage() != null) {
                 main.getAvailableCoursesPage().refreshCourses();
             }
-
-        } catch (SQLIntegrityConstraintViolationException ex) {
-            JOptionPane.showMessageDialog(this, "You are already registered for this course (or a previous cancellation exists).", "Registration Error", JOptionPane.ERROR_MESSAGE);
-            checkIfAlreadyRegistered();
-        } catch (SQLException ex) {
-            JOptionPane.showMessageDialog(this, "Error during registration: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
+        }, ex -> {
+            if (ex instanceof SQLIntegrityConstraintViolationException) {
+                // The student or course row is gone (e.g. the course was purged meanwhile).
+                JOptionPane.showMessageDialog(this, "This course is no longer available for registration.", "Registration Error", JOptionPane.ERROR_MESSAGE);
+            } else {
+                JOptionPane.showMessageDialog(this, "Error during registration: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
+            }
+        });
     }
 
     private void styleButton(JButton b, Color bg, Color hover) {
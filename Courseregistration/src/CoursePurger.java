@@ -0,0 +1,80 @@
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Permanently deletes courses together with their results, attendance and
+ * registrations. Dependent rows go in chunks of db.purge.chunkSize, each chunk
+ * committed on its own, so a course with years of attendance never holds locks
+ * on those tables for longer than one small DELETE.
+ *
+ * Purging is idempotent: a run that is interrupted or fails part way can simply
+ * be started again for the same courses.
+ */
+public class CoursePurger extends Repository {
+
+    public interface Listener {
+        void progress(Progress progress);
+    }
+
+    /** courseIndex is 1-based; table is null once the course row itself is gone. */
+    public record Progress(String courseId, int courseIndex, int courseCount, String table, long rowsDeleted) {
+    }
+
+    public record Report(int coursesPurged, long rowsDeleted, List<String> notFound, boolean interrupted) {
+    }
+
+    static final int CHUNK_SIZE = Math.max(1, DBConfig.getInt("db.purge.chunkSize", 1000));
+
+    // Children first; course_results and attendance do not depend on each other.
+    private static final List<String> DEPENDENT_TABLES = List.of("course_results", "attendance", "course_registrations");
+
+    /**
+     * Purges each course in turn. Stops between chunks if the calling thread is
+     * interrupted, including while it waits for a pooled connection, and reports
+     * what was finished so far.
+     */
+    public Report purge(List<String> courseIds, Listener listener) throws SQLException {
+        int purged = 0;
+        long rows = 0;
+        List<String> notFound = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < courseIds.size(); i++) {
+                String courseId = courseIds.get(i);
+                for (String table : DEPENDENT_TABLES) {
+                    long deleted = 0;
+                    int chunk;
+                    do {
+                        if (Thread.currentThread().isInterrupted()) {
+                            return new Report(purged, rows, notFound, true);
+                        }
+                        chunk = update("DELETE FROM " + table + " WHERE course_ref = " + COURSE_KEY + " LIMIT " + CHUNK_SIZE,
+                                ps -> ps.setString(1, courseId));
+                        deleted += chunk;
+                        rows += chunk;
+                        listener.progress(new Progress(courseId, i + 1, courseIds.size(), table, deleted));
+                    } while (chunk >= CHUNK_SIZE);
+                }
+
+                int course = update("DELETE FROM courses WHERE course_id = ?", ps -> ps.setString(1, courseId));
+                if (course > 0) {
+                    PosterCache.invalidate(courseId);
+                    purged++;
+                    rows += course;
+                } else {
+                    notFound.add(courseId);
+                }
+                listener.progress(new Progress(courseId, i + 1, courseIds.size(), null, course));
+            }
+        } catch (SQLException e) {
+            // ConnectionPool.borrow keeps the interrupt flag when it gives up waiting; the
+            // chunks already committed stay deleted and are still worth reporting.
+            if (Thread.currentThread().isInterrupted()) {
+                return new Report(purged, rows, notFound, true);
+            }
+            throw e;
+        }
+        return new Report(purged, rows, notFound, false);
+    }
+}
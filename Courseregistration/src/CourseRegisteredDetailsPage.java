@@ -8,7 +8,7 @@ import java.util.Calendar;
 import java.util.concurrent.TimeUnit;
 import java.io.File;
 
-public class CourseRegisteredDetailsPage extends JPanel {
+public class CourseRegisteredDetailsPage extends JPanel implements MainFrame.CachedPage {
     private MainFrame main;
     private String courseId;
     private String studentAdmissionNo;
@@ -17,6 +17,9 @@ public class CourseRegisteredDetailsPage extends JPanel {
     private Color primary = new Color(52, 152, 219);
     private Color danger = new Color(231, 76, 60);
 
+    private final CourseRepository courses = new CourseRepository();
+    private final RegistrationRepository registrations = new RegistrationRepository();
+
     
     private Date courseDateTime;
     private String courseName;
@@ -68,6 +71,10 @@ public class CourseRegisteredDetailsPage extends JPanel {
         JLabel lblMode = new JLabel();
         lblMode.setFont(new Font("Segoe UI", Font.PLAIN, 16));
         lblMode.setAlignmentX(Component.CENTER_ALIGNMENT);
+
+        JLabel lblEnrolled = new JLabel();
+        lblEnrolled.setFont(new Font("Segoe UI", Font.PLAIN, 16));
+        lblEnrolled.setAlignmentX(Component.CENTER_ALIGNMENT);
         
         JTextArea txtDescription = new JTextArea(10, 40);
         txtDescription.setLineWrap(true);
@@ -83,6 +90,7 @@ public class CourseRegisteredDetailsPage extends JPanel {
         content.add(lblDate);
         content.add(lblTime);
         content.add(lblMode);
+        content.add(lblEnrolled);
         content.add(Box.createVerticalStrut(20));
         content.add(new JScrollPane(txtDescription));
 
@@ -101,6 +109,7 @@ public class CourseRegisteredDetailsPage extends JPanel {
 
         btnCancelRegistration = new JButton("Cancel Registration");
         styleButton(btnCancelRegistration, danger, danger.darker(), new Dimension(180, 35));
+        btnCancelRegistration.setEnabled(false);
         btnCancelRegistration.addActionListener(e -> cancelRegistration());
 
         footer.add(btnBack);
@@ -111,6 +120,12 @@ public class CourseRegisteredDetailsPage extends JPanel {
 
     
 
+    // Re-reads the head count and registration, and re-checks the cancellation deadline against now.
+    @Override
+    public void reload() {
+        loadCourseDetails();
+    }
+
     private void loadCourseDetails() {
        
         JPanel contentPanel = (JPanel)((JScrollPane)getComponent(1)).getViewport().getView();
@@ -119,49 +134,60 @@ public class CourseRegisteredDetailsPage extends JPanel {
         JLabel lblDate = (JLabel) contentPanel.getComponent(4);
         JLabel lblTime = (JLabel) contentPanel.getComponent(5);
         JLabel lblMode = (JLabel) contentPanel.getComponent(6);
-        JTextArea txtDescription = (JTextArea) ((JScrollPane)contentPanel.getComponent(8)).getViewport().getView();
-        
-        try (Connection conn = DBConnection.getConnection();
-              PreparedStatement pst = conn.prepareStatement("SELECT * FROM courses WHERE course_id = ?")) {
-            pst.setString(1, courseId);
-            ResultSet rs = pst.executeQuery();
+        JLabel lblEnrolled = (JLabel) contentPanel.getComponent(7);
+        JTextArea txtDescription = (JTextArea) ((JScrollPane)contentPanel.getComponent(9)).getViewport().getView();
+
+        // One round trip for the course, whether the registration is still active, and the head count.
+        UnitOfWork.load(this, "CourseRegisteredDetailsPage.loadCourseDetails",
+                () -> courses.findForStudent(courseId, studentAdmissionNo),
+                details -> {
+                    CourseRepository.CourseForStudent found = details.orElse(null);
             
-            if (rs.next()) {
-                this.courseName = rs.getString("course_name"); 
-                lblName.setText(this.courseName);
+                    if (found != null) {
+                        CourseRepository.Course course = found.course();
+                        this.courseName = course.courseName(); 
+                        lblName.setText(this.courseName);
 
-                Date date = rs.getDate("course_date");
-                Time time = rs.getTime("course_time");
+                        Date date = course.courseDate();
+                        Time time = course.courseTime();
                 
                
-                Calendar courseCal = Calendar.getInstance();
-                courseCal.setTimeInMillis(date.getTime() + time.getTime());
-                this.courseDateTime = courseCal.getTime();
+                        Calendar courseCal = Calendar.getInstance();
+                        courseCal.setTimeInMillis(date.getTime() + time.getTime());
+                        this.courseDateTime = courseCal.getTime();
 
-                SimpleDateFormat df = new SimpleDateFormat("MMM dd, yyyy");
-                SimpleDateFormat tf = new SimpleDateFormat("hh:mm a");
-                lblDate.setText("📅 Date: " + df.format(date));
-                lblTime.setText("🕒 Time: " + tf.format(time));
-                lblMode.setText("Mode: " + rs.getString("mode"));
+                        SimpleDateFormat df = new SimpleDateFormat("MMM dd, yyyy");
+                        SimpleDateFormat tf = new SimpleDateFormat("hh:mm a");
+                        lblDate.setText("📅 Date: " + df.format(date));
+                        lblTime.setText("🕒 Time: " + tf.format(time));
+                        lblMode.setText("Mode: " + course.mode());
+                        lblEnrolled.setText("Enrolled: " + found.enrolledCount() + (found.enrolledCount() == 1 ? " student" : " students"));
 
-                txtDescription.setText(rs.getString("description"));
+                        txtDescription.setText(course.description());
 
-                String poster = rs.getString("poster");
-                loadPoster(lblPoster, poster);
+                        String poster = course.poster();
+                        loadPoster(lblPoster, poster, course.hasPosterImage());
                 
-                checkCancellationStatus();
-
-            } else {
-                lblName.setText("Course not found.");
-                btnCancelRegistration.setEnabled(false);
-            }
-        } catch (SQLException ex) {
-            JOptionPane.showMessageDialog(this, "Error loading course details: " + ex.getMessage());
-        }
+                        if (found.registered()) {
+                            checkCancellationStatus();
+                        } else {
+                            btnCancelRegistration.setEnabled(false);
+                            btnCancelRegistration.setText("Cancelled");
+                            btnCancelRegistration.setBackground(Color.DARK_GRAY);
+                        }
+
+                    } else {
+                        lblName.setText("Course not found.");
+                        btnCancelRegistration.setEnabled(false);
+                    }
+                },
+                ex -> JOptionPane.showMessageDialog(this, "Error loading course details: " + ex.getMessage()));
     }
 
-    private void loadPoster(JLabel lblPoster, String poster) {
-        if (poster != null && !poster.equals("No file chosen")) {
+    private void loadPoster(JLabel lblPoster, String poster, boolean hasPosterImage) {
+        if (hasPosterImage) {
+            PosterCache.loadInto(lblPoster, courseId, 700, 500);
+        } else if (poster != null && !poster.equals("No file chosen")) {
             File posterFile = new File("posters/" + poster);
             if (posterFile.exists()) {
                 ImageIcon icon = new ImageIcon(posterFile.getAbsolutePath());
@@ -230,16 +256,8 @@ public class CourseRegisteredDetailsPage extends JPanel {
                 "Confirm Cancellation", JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE);
         
         if (confirm == JOptionPane.YES_OPTION) {
-            try (Connection conn = DBConnection.getConnection();
-                
-                 PreparedStatement pst = conn.prepareStatement(
-                     "UPDATE course_registrations SET is_cancelled = TRUE, cancellation_date = CURRENT_TIMESTAMP " +
-                     "WHERE student_admission_no = ? AND course_id = ? AND is_cancelled = FALSE")) {
-                
-                pst.setString(1, studentAdmissionNo);
-                pst.setString(2, courseId);
-                
-                if (pst.executeUpdate() > 0) {
+            UnitOfWork.submit(this, "CourseRegisteredDetailsPage.cancelRegistration", () -> registrations.cancel(studentAdmissionNo, courseId), cancelled -> {
+                if (cancelled) {
                     JOptionPane.showMessageDialog(this, "Registration successfully cancelled.", "Success", JOptionPane.INFORMATION_MESSAGE);
                     
                   
@@ -249,6 +267,7 @@ public class CourseRegisteredDetailsPage extends JPanel {
 
                     
                     main.showMyCoursesPage();
+                    main.discardCoursePages(courseId);
                     if (main.getAvailableCoursesPage() != null) {
                         main.getAvailableCoursesPage().refreshCourses();
                     }
@@ -256,11 +275,11 @@ public class CourseRegisteredDetailsPage extends JPanel {
                     
                     JOptionPane.showMessageDialog(this, "Error: Active registration record not found. It may be already cancelled or the DB state is inconsistent.", "Error", JOptionPane.ERROR_MESSAGE);
                 }
-            } catch (SQLException ex) {
+            }, ex -> {
               
                 JOptionPane.showMessageDialog(this, "Database error during cancellation: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
                 ex.printStackTrace();
-            }
+            });
         }
     }
     
@@ -0,0 +1,340 @@
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+public class CourseRepository extends Repository {
+
+    /** poster is a file name under posters/; hasPosterImage says an uploaded image is stored for PosterCache. */
+    public record CourseSummary(String courseId, String courseName, Date courseDate, Time courseTime,
+                                Timestamp endsAt, String mode, String poster, boolean hasPosterImage) {
+    }
+
+    /** The sort key of the last row a list has shown; the next page starts after it. */
+    public record Cursor(Timestamp endsAt, String courseId) {
+    }
+
+    /** One page of a course list; next is null once the list is exhausted. */
+    public record Page<T>(List<T> rows, Cursor next) {
+    }
+
+    static final int PAGE_SIZE = Math.max(1, DBConfig.getInt("db.pageSize", 50));
+
+    public record Course(String courseId, String courseName, String description, Date courseDate, Time courseTime,
+                         int durationMinutes, String mode, String coordinator1, String coordinator2, String poster,
+                         boolean hasPosterImage) {
+    }
+
+    /** What courses without an explicit duration were always assumed to last. */
+    public static final int DEFAULT_DURATION_MINUTES = 60;
+
+    /*
+     * A course is upcoming until its ends_at has passed, judged by the database clock
+     * so every client agrees. Both predicates are ranges on idx_courses_active_ends.
+     */
+    static final String UPCOMING_FILTER = "c.ends_at > LOCALTIMESTAMP";
+    static final String PAST_FILTER = "c.ends_at <= LOCALTIMESTAMP";
+
+    /*
+     * ends_at is computed by the server from the stored date, time and duration, never
+     * bound as a client Timestamp: then the value and LOCALTIMESTAMP above come from
+     * the same clock and time zone whatever the client JVM's zone is. ENDS_AT_SQL
+     * takes the duration, date and time as parameters; ENDS_AT_OF_ROW reads the row.
+     * Date and time are joined with CAST(CONCAT(...)) rather than MySQL's two-argument
+     * TIMESTAMP(), which the embedded engine does not have.
+     */
+    static final String ENDS_AT_SQL = "TIMESTAMPADD(MINUTE, ?, CAST(CONCAT(?, ' ', ?) AS DATETIME))";
+    static final String ENDS_AT_OF_ROW = "TIMESTAMPADD(MINUTE, duration_minutes, "
+            + "CAST(CONCAT(course_date, ' ', COALESCE(course_time, TIME '00:00:00')) AS DATETIME))";
+
+    public record CourseOption(String courseId, String courseName) {
+    }
+
+    /** Everything a student's details screen shows: registered means an active (not cancelled) registration. */
+    public record CourseForStudent(Course course, boolean registered, int enrolledCount) {
+    }
+
+    /** A catalog course plus how the student stands on it once it is over: EXPIRED, COMPLETED or ABSENT. */
+    public record AvailableCourse(CourseSummary course, String pastStatus) {
+    }
+
+    // Neither projection selects poster_image itself: lists stay a few hundred bytes per
+    // course, and the image is fetched separately through PosterCache when shown.
+    static final String POSTER_FLAG = "c.poster_image IS NOT NULL AS has_poster_image";
+
+    private static final String SUMMARY_COLUMNS =
+            "c.course_id, c.course_name, c.course_date, c.course_time, c.ends_at, c.mode, c.poster, " + POSTER_FLAG;
+
+    private static final String DETAIL_COLUMNS =
+            "c.course_id, c.course_name, c.description, c.course_date, c.course_time, c.duration_minutes, c.mode, " +
+            "c.coordinator1, c.coordinator2, c.poster, " + POSTER_FLAG;
+
+    /*
+     * Courses the student is not actively registered for. The student's past status
+     * comes from the same pass: no registration row at all is EXPIRED, a cancelled
+     * one with a 'Present' mark is COMPLETED, otherwise ABSENT. The attendance side
+     * is aggregated once per course for this student rather than probed per row.
+     */
+    private static final String AVAILABLE_FOR_STUDENT_SQL =
+            "SELECT " + SUMMARY_COLUMNS + ", " +
+            "CASE WHEN cr.registration_id IS NULL THEN 'EXPIRED' " +
+            "WHEN p.course_ref IS NOT NULL THEN 'COMPLETED' " +
+            "ELSE 'ABSENT' END AS past_status " +
+            "FROM courses c " +
+            "LEFT JOIN course_registrations cr ON cr.course_ref = c.id AND cr.student_id = " + STUDENT_KEY + " " +
+            "LEFT JOIN (SELECT course_ref FROM attendance " +
+            "WHERE student_id = " + STUDENT_KEY + " AND status = 'Present' GROUP BY course_ref) p " +
+            "ON p.course_ref = c.id " +
+            "WHERE c.is_deleted = FALSE AND (cr.registration_id IS NULL OR cr.is_cancelled = TRUE) AND ";
+
+    static final String AVAILABLE_UPCOMING_SQL = AVAILABLE_FOR_STUDENT_SQL + UPCOMING_FILTER;
+
+    static final String AVAILABLE_PAST_SQL = AVAILABLE_FOR_STUDENT_SQL + PAST_FILTER;
+
+    private static final String SEARCH_FILTER =
+            " AND (LOWER(c.course_name) LIKE ? OR LOWER(c.course_id) LIKE ?)";
+
+    static final String UPCOMING_SQL_PREFIX =
+            "SELECT " + SUMMARY_COLUMNS + " FROM courses c WHERE c.is_deleted = FALSE AND " + UPCOMING_FILTER;
+
+    static final String COMPLETED_SQL_PREFIX =
+            "SELECT " + SUMMARY_COLUMNS + " FROM courses c WHERE c.is_deleted = FALSE AND " + PAST_FILTER;
+
+    static final String DELETED_SQL_PREFIX =
+            "SELECT " + SUMMARY_COLUMNS + " FROM courses c WHERE c.is_deleted = TRUE";
+
+    /*
+     * The details screen in one round trip: the course row, the student's own
+     * registration through uk_registrations_student_course, and the active head
+     * count through idx_registrations_course_active.
+     */
+    static final String DETAILS_FOR_STUDENT_SQL =
+            "SELECT " + DETAIL_COLUMNS + ", " +
+            "CASE WHEN cr.is_cancelled = FALSE THEN 1 ELSE 0 END AS is_registered, " +
+            "(SELECT COUNT(*) FROM course_registrations e " +
+            "WHERE e.course_ref = c.id AND e.is_cancelled = FALSE) AS enrolled_count " +
+            "FROM courses c " +
+            "LEFT JOIN course_registrations cr ON cr.course_ref = c.id AND cr.student_id = " + STUDENT_KEY + " " +
+            "WHERE c.course_id = ?";
+
+    private static final RowMapper<CourseSummary> SUMMARY_MAPPER = rs -> new CourseSummary(
+            rs.getString("course_id"),
+            rs.getString("course_name"),
+            rs.getDate("course_date"),
+            rs.getTime("course_time"),
+            rs.getTimestamp("ends_at"),
+            rs.getString("mode"),
+            rs.getString("poster"),
+            rs.getBoolean("has_poster_image"));
+
+    private static final RowMapper<Course> DETAIL_MAPPER = rs -> new Course(
+            rs.getString("course_id"),
+            rs.getString("course_name"),
+            rs.getString("description"),
+            rs.getDate("course_date"),
+            rs.getTime("course_time"),
+            rs.getInt("duration_minutes"),
+            rs.getString("mode"),
+            rs.getString("coordinator1"),
+            rs.getString("coordinator2"),
+            rs.getString("poster"),
+            rs.getBoolean("has_poster_image"));
+
+    /**
+     * One page of a catalog tab: courses still running or upcoming (soonest first),
+     * or those already over (most recent first). after is null for the first page.
+     */
+    public Page<AvailableCourse> findAvailableForStudent(String admissionNo, boolean upcoming, Cursor after) throws SQLException {
+        String sql = (upcoming ? AVAILABLE_UPCOMING_SQL : AVAILABLE_PAST_SQL) + seekAfter(after, upcoming) + pageOrder(upcoming);
+        return toPage(queryList(sql,
+                ps -> {
+                    ps.setString(1, admissionNo);
+                    ps.setString(2, admissionNo);
+                    bindSeek(ps, 3, after);
+                },
+                rs -> new AvailableCourse(SUMMARY_MAPPER.map(rs), rs.getString("past_status"))), AvailableCourse::course);
+    }
+
+    public Page<CourseSummary> findUpcoming(String searchTerm, Cursor after) throws SQLException {
+        String sql = UPCOMING_SQL_PREFIX + searchFilter(searchTerm) + seekAfter(after, true) + pageOrder(true);
+        return toPage(queryList(sql, ps -> bindSeek(ps, bindSearch(ps, 1, searchTerm), after), SUMMARY_MAPPER), c -> c);
+    }
+
+    public Page<CourseSummary> findCompleted(String searchTerm, Cursor after) throws SQLException {
+        String sql = COMPLETED_SQL_PREFIX + searchFilter(searchTerm) + seekAfter(after, false) + pageOrder(false);
+        return toPage(queryList(sql, ps -> bindSeek(ps, bindSearch(ps, 1, searchTerm), after), SUMMARY_MAPPER), c -> c);
+    }
+
+    public Page<CourseSummary> findDeleted(String searchTerm, Cursor after) throws SQLException {
+        String sql = DELETED_SQL_PREFIX + searchFilter(searchTerm) + seekAfter(after, false) + pageOrder(false);
+        return toPage(queryList(sql, ps -> bindSeek(ps, bindSearch(ps, 1, searchTerm), after), SUMMARY_MAPPER), c -> c);
+    }
+
+    /** Every archived course, for purging; only the ids, however large the archive. */
+    public List<String> findDeletedIds() throws SQLException {
+        return queryList("SELECT course_id FROM courses WHERE is_deleted = TRUE", ps -> { },
+                rs -> rs.getString("course_id"));
+    }
+
+    /*
+     * Keyset paging on (ends_at, course_id): each page seeks past the last row shown
+     * instead of counting an OFFSET, so a page deep in the archive costs the same as
+     * the first. course_id is the primary key, so idx_courses_active_ends already
+     * holds rows in this order. One extra row is read to tell whether more follow.
+     */
+    static String seekAfter(Cursor after, boolean ascending) {
+        if (after == null) {
+            return "";
+        }
+        String op = ascending ? ">" : "<";
+        return " AND (c.ends_at " + op + " ? OR (c.ends_at = ? AND c.course_id " + op + " ?))";
+    }
+
+    static String pageOrder(boolean ascending) {
+        String direction = ascending ? "ASC" : "DESC";
+        return " ORDER BY c.ends_at " + direction + ", c.course_id " + direction + " LIMIT " + (PAGE_SIZE + 1);
+    }
+
+    static int bindSeek(PreparedStatement ps, int index, Cursor after) throws SQLException {
+        if (after == null) {
+            return index;
+        }
+        ps.setTimestamp(index++, after.endsAt());
+        ps.setTimestamp(index++, after.endsAt());
+        ps.setString(index++, after.courseId());
+        return index;
+    }
+
+    static <T> Page<T> toPage(List<T> rows, Function<T, CourseSummary> course) {
+        if (rows.size() <= PAGE_SIZE) {
+            return new Page<>(rows, null);
+        }
+        List<T> page = new ArrayList<>(rows.subList(0, PAGE_SIZE));
+        CourseSummary last = course.apply(page.get(PAGE_SIZE - 1));
+        return new Page<>(page, new Cursor(last.endsAt(), last.courseId()));
+    }
+
+    public Optional<Course> findById(String courseId) throws SQLException {
+        return queryOne("SELECT " + DETAIL_COLUMNS + " FROM courses c WHERE c.course_id = ?",
+                ps -> ps.setString(1, courseId), DETAIL_MAPPER);
+    }
+
+    public Optional<CourseForStudent> findForStudent(String courseId, String admissionNo) throws SQLException {
+        return queryOne(DETAILS_FOR_STUDENT_SQL,
+                ps -> {
+                    ps.setString(1, admissionNo);
+                    ps.setString(2, courseId);
+                },
+                rs -> new CourseForStudent(DETAIL_MAPPER.map(rs), rs.getBoolean("is_registered"), rs.getInt("enrolled_count")));
+    }
+
+    /** The only statement that reads poster_image; use PosterCache.get rather than calling this directly. */
+    Optional<byte[]> findPosterBytes(String courseId) throws SQLException {
+        return queryOne("SELECT poster_image FROM courses WHERE course_id = ?",
+                ps -> ps.setString(1, courseId), rs -> rs.getBytes("poster_image"));
+    }
+
+    public List<CourseOption> searchActive(String searchTerm) throws SQLException {
+        String likeTerm = "%" + searchTerm.trim().toLowerCase() + "%";
+        return queryList(
+                "SELECT course_id, course_name FROM courses WHERE is_deleted = FALSE AND (LOWER(course_id) LIKE ? OR LOWER(course_name) LIKE ?)",
+                ps -> {
+                    ps.setString(1, likeTerm);
+                    ps.setString(2, likeTerm);
+                },
+                rs -> new CourseOption(rs.getString("course_id"), rs.getString("course_name")));
+    }
+
+    public void insert(String courseId, String courseName, String description, java.util.Date date,
+                       java.util.Date time, int durationMinutes, String mode, String poster) throws SQLException {
+        Date courseDate = new Date(date.getTime());
+        Time courseTime = new Time(time.getTime());
+        update("INSERT INTO courses (course_id, course_name, description, course_date, course_time, duration_minutes, ends_at, mode, poster, is_deleted) VALUES (?, ?, ?, ?, ?, ?, " + ENDS_AT_SQL + ", ?, ?, FALSE)",
+                ps -> {
+                    ps.setString(1, courseId);
+                    ps.setString(2, courseName);
+                    ps.setString(3, description);
+                    ps.setDate(4, courseDate);
+                    ps.setTime(5, courseTime);
+                    ps.setInt(6, durationMinutes);
+                    ps.setInt(7, durationMinutes);
+                    ps.setDate(8, courseDate);
+                    ps.setTime(9, courseTime);
+                    ps.setString(10, mode);
+                    ps.setString(11, poster);
+                });
+    }
+
+    /**
+     * date and time are the yyyy-MM-dd and HH:mm[:ss] text from the edit form;
+     * IllegalArgumentException if either does not parse.
+     */
+    public int updateDetails(String courseId, String courseName, String description, String date, String time,
+                             int durationMinutes, String mode, String coordinator1, String coordinator2,
+                             File posterFile) throws SQLException, IOException {
+        Date courseDate = Date.valueOf(date);
+        Time courseTime = Time.valueOf(time.length() == 5 ? time + ":00" : time);
+        String sql = posterFile != null
+                ? "UPDATE courses SET course_name=?, description=?, course_date=?, course_time=?, duration_minutes=?, ends_at=" + ENDS_AT_SQL + ", mode=?, coordinator1=?, coordinator2=?, poster=NULL, poster_image=? WHERE course_id=?"
+                : "UPDATE courses SET course_name=?, description=?, course_date=?, course_time=?, duration_minutes=?, ends_at=" + ENDS_AT_SQL + ", mode=?, coordinator1=?, coordinator2=? WHERE course_id=?";
+
+        try (InputStream poster = posterFile != null ? new FileInputStream(posterFile) : null) {
+            return update(sql, ps -> {
+                int i = 1;
+                ps.setString(i++, courseName);
+                ps.setString(i++, description);
+                ps.setDate(i++, courseDate);
+                ps.setTime(i++, courseTime);
+                ps.setInt(i++, durationMinutes);
+                ps.setInt(i++, durationMinutes);
+                ps.setDate(i++, courseDate);
+                ps.setTime(i++, courseTime);
+                ps.setString(i++, mode);
+                ps.setString(i++, coordinator1);
+                ps.setString(i++, coordinator2);
+                if (poster != null) {
+                    ps.setBinaryStream(i++, poster, posterFile.length());
+                }
+                ps.setString(i, courseId);
+            });
+        } finally {
+            if (posterFile != null) {
+                PosterCache.invalidate(courseId);
+            }
+        }
+    }
+
+    public boolean setDeleted(String courseId, boolean deleted) throws SQLException {
+        return update("UPDATE courses SET is_deleted = ? WHERE course_id = ?", ps -> {
+            ps.setBoolean(1, deleted);
+            ps.setString(2, courseId);
+        }) > 0;
+    }
+
+    private static String searchFilter(String searchTerm) {
+        return hasSearch(searchTerm) ? SEARCH_FILTER : "";
+    }
+
+    private static boolean hasSearch(String searchTerm) {
+        return searchTerm != null && !searchTerm.trim().isEmpty();
+    }
+
+    /** Returns the next parameter index. */
+    private static int bindSearch(PreparedStatement ps, int index, String searchTerm) throws SQLException {
+        if (hasSearch(searchTerm)) {
+            String term = "%" + searchTerm.trim().toLowerCase() + "%";
+            ps.setString(index++, term);
+            ps.setString(index++, term);
+        }
+        return index;
+    }
+}
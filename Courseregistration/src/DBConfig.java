@@ -0,0 +1,58 @@
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+public final class DBConfig {
+    private static final String CONFIG_FILE = "db.properties";
+    private static final Properties props = load();
+
+    private DBConfig() {
+    }
+
+    private static Properties load() {
+        Properties p = new Properties();
+        Path file = Paths.get(System.getProperty("db.config", CONFIG_FILE));
+        if (Files.isRegularFile(file)) {
+            try (InputStream in = new FileInputStream(file.toFile())) {
+                p.load(in);
+            } catch (IOException e) {
+                System.err.println("Warning: could not read " + file + ": " + e.getMessage());
+            }
+        }
+        return p;
+    }
+
+    public static String get(String key, String defaultValue) {
+        String value = System.getProperty(key);
+        if (value == null) {
+            value = props.getProperty(key);
+        }
+        return (value == null || value.trim().isEmpty()) ? defaultValue : value.trim();
+    }
+
+    public static int getInt(String key, int defaultValue) {
+        try {
+            return Integer.parseInt(get(key, String.valueOf(defaultValue)));
+        } catch (NumberFormatException e) {
+            System.err.println("Warning: invalid value for " + key + ", using " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    public static long getLong(String key, long defaultValue) {
+        try {
+            return Long.parseLong(get(key, String.valueOf(defaultValue)));
+        } catch (NumberFormatException e) {
+            System.err.println("Warning: invalid value for " + key + ", using " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        return Boolean.parseBoolean(get(key, String.valueOf(defaultValue)));
+    }
+}
@@ -1,16 +1,132 @@
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class DBConnection {
-	private static final String URL ="jdbc:mysql://localhost:3306/registrationdb?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC";
-    private static final String USER = "root";       
-    private static final String PASSWORD = "@Lionelmessi10"; 
+	private static final String MYSQL_URL = DBConfig.get("db.url", "jdbc:mysql://localhost:3306/registrationdb?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC");
+
+    // db.mode=embedded runs H2 in MySQL mode inside this JVM: same schema (created by
+    // SchemaMigrator), same SQL except the upserts H2 spells as MERGE (see isEmbedded), no server.
+    // Use jdbc:h2:mem:...;DB_CLOSE_DELAY=-1 for throwaway runs.
+    private static final String EMBEDDED_URL = DBConfig.get("db.embedded.url", "jdbc:h2:./data/registrationdb;MODE=MySQL;DATABASE_TO_LOWER=TRUE");
+    private static final boolean EMBEDDED = "embedded".equalsIgnoreCase(DBConfig.get("db.mode", "mysql"));
+
+    private static final String URL = EMBEDDED ? EMBEDDED_URL : MYSQL_URL;
+    private static final String USER = EMBEDDED ? DBConfig.get("db.embedded.user", "sa") : DBConfig.get("db.user", "root");
+    private static final String PASSWORD = EMBEDDED ? DBConfig.get("db.embedded.password", "") : DBConfig.get("db.password", "@Lionelmessi10");
+
+    private static final ConnectionPool pool = new ConnectionPool("primary", URL, connectionProperties(URL, USER, PASSWORD));
+
+    // Read-only units of work may go to db.replica.urls (comma separated); writes always use the primary.
+    // After a write, reads stay on the primary for db.replica.stickyMillis so the user sees their own change
+    // even if the replicas lag behind.
+    private static final List<ConnectionPool> replicas = createReplicas();
+    private static final AtomicInteger nextReplica = new AtomicInteger();
+    private static final long STICKY_MILLIS = DBConfig.getLong("db.replica.stickyMillis", 5000);
+    private static volatile long lastWriteAt;
+
+    // Fails fast while the primary is unreachable; the probe borrows (and so validates) a connection.
+    private static final CircuitBreaker breaker = new CircuitBreaker("primary", () -> pool.borrow().close());
+
+    static {
+        // Only the pool's own connects and validations move the breaker: a query timeout or a
+        // saturated pool is not an outage, and handing out an idle connection proves nothing.
+        pool.setHealthListener(new ConnectionPool.HealthListener() {
+            @Override
+            public void reached() {
+                breaker.recordSuccess();
+            }
+
+            @Override
+            public void connectFailed(SQLException e) {
+                breaker.recordFailure(e);
+            }
+        });
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            pool.close();
+            replicas.forEach(ConnectionPool::close);
+        }, "db-pool-shutdown"));
+        if (DBConfig.getBoolean("db.metrics.reportOnExit", false)) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> System.out.println(QueryMetrics.report()), "db-metrics-report"));
+        }
+    }
 
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(URL, USER, PASSWORD);
+        breaker.checkAvailable();
+        return QueryMetrics.instrument(pool.borrow());
     }
-}
 
+    /** A connection for a read-only unit of work: a replica when one is configured and the session is not sticky. */
+    public static Connection getReadConnection() throws SQLException {
+        if (replicas.isEmpty() || System.currentTimeMillis() - lastWriteAt < STICKY_MILLIS) {
+            return getConnection();
+        }
+        int start = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            ConnectionPool replica = replicas.get((start + i) % replicas.size());
+            try {
+                return QueryMetrics.instrument(replica.borrow());
+            } catch (SQLException e) {
+                System.err.println("Warning: replica unavailable, trying next: " + e.getMessage());
+            }
+        }
+        return getConnection();
+    }
 
+    /** Records that this session just wrote, so its following reads are served by the primary. */
+    public static void markWrite() {
+        lastWriteAt = System.currentTimeMillis();
+    }
 
+    public static boolean isUnavailable(SQLException e) {
+        return e instanceof CircuitBreaker.OpenException || CircuitBreaker.isConnectivityFailure(e);
+    }
+
+    public static CircuitBreaker getBreaker() {
+        return breaker;
+    }
+
+    private static List<ConnectionPool> createReplicas() {
+        List<ConnectionPool> list = new ArrayList<>();
+        String urls = DBConfig.get("db.replica.urls", "");
+        String user = DBConfig.get("db.replica.user", USER);
+        String password = DBConfig.get("db.replica.password", PASSWORD);
+        for (String url : urls.split(",")) {
+            if (!url.trim().isEmpty()) {
+                list.add(new ConnectionPool("replica-" + (list.size() + 1), url.trim(), connectionProperties(url.trim(), user, password)));
+            }
+        }
+        return list;
+    }
+
+    private static Properties connectionProperties(String url, String user, String password) {
+        Properties info = new Properties();
+        info.setProperty("user", user);
+        info.setProperty("password", password);
+        if (url.startsWith("jdbc:mysql:")) {
+            // Server-side prepared statements stay cached on each pooled connection,
+            // and a positive fetch size streams rows through a cursor.
+            info.setProperty("useServerPrepStmts", "true");
+            info.setProperty("cachePrepStmts", "true");
+            info.setProperty("prepStmtCacheSize", DBConfig.get("db.prepStmtCacheSize", "250"));
+            info.setProperty("prepStmtCacheSqlLimit", "2048");
+            info.setProperty("useCursorFetch", "true");
+            // Bound how long a dead server can stall a borrow before the breaker counts it.
+            info.setProperty("connectTimeout", DBConfig.get("db.connectTimeoutMillis", "3000"));
+            // Send a batch of INSERTs as one multi-row statement (see AttendanceRepository.saveChanges).
+            info.setProperty("rewriteBatchedStatements", "true");
+        }
+        return info;
+    }
+
+    public static boolean isEmbedded() {
+        return EMBEDDED;
+    }
+
+    public static ConnectionPool.Stats getPoolStats() {
+        return pool.stats();
+    }
+}
@@ -39,7 +39,7 @@ public class Dashboard extends JPanel {
                     "Are you sure you want to log out?",
                     "Logout", JOptionPane.YES_NO_OPTION);
             if (confirm == JOptionPane.YES_OPTION) {
-                main.showPage("login");
+                main.logout();
             }
         });
 
@@ -87,20 +87,11 @@ public class Dashboard extends JPanel {
         
         btnProfile.addActionListener(e -> main.showProfilePage(admissionNo));
 
-        btnMyCourses.addActionListener(e -> {
-            main.setCurrentStudent(admissionNo);
-            main.showMyCoursesPage();
-        });
+        btnMyCourses.addActionListener(e -> main.showMyCoursesPage());
 
-        btnAvailableCourses.addActionListener(e -> {
-            main.setCurrentStudent(admissionNo);
-            main.showAvailableCoursesPage();
-        });
+        btnAvailableCourses.addActionListener(e -> main.showAvailableCoursesPage());
 
-        btnCertifications.addActionListener(e -> {
-            main.setCurrentStudent(admissionNo);
-            main.showMyCertificatesPage();
-        });
+        btnCertifications.addActionListener(e -> main.showMyCertificatesPage());
     }
 
     
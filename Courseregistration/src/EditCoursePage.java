@@ -9,12 +9,17 @@ public class EditCoursePage extends JPanel {
     private String courseId;
     private ManageCoursesPage parentPage; 
 
-    private JTextField txtCourseId, txtCourseName, txtDate, txtTime, txtMode, txtCoordinator1, txtCoordinator2;
+    private JTextField txtCourseId, txtCourseName, txtDate, txtTime, txtDuration, txtMode, txtCoordinator1, txtCoordinator2;
     private JTextArea txtDescription;
     private JLabel lblPosterPreview;
     private JButton btnChooseImage, btnSave, btnBack;
     private File selectedImageFile;
 
+    private final CourseRepository courses = new CourseRepository();
+
+    private record LoadedCourse(CourseRepository.Course course, byte[] imageBytes) {
+    }
+
    
     public EditCoursePage(MainFrame main, String courseId, ManageCoursesPage parentPage) {
         this.main = main;
@@ -99,6 +104,15 @@ public class EditCoursePage extends JPanel {
         formPanel.add(txtTime, gbc);
         y++;
 
+        
+        gbc.gridx = 0; gbc.gridy = y;
+        formPanel.add(new JLabel("Duration (minutes):"), gbc);
+        txtDuration = new JTextField();
+        styleField(txtDuration, fieldFont, fieldSize);
+        gbc.gridx = 1;
+        formPanel.add(txtDuration, gbc);
+        y++;
+
        
         gbc.gridx = 0; gbc.gridy = y;
         formPanel.add(new JLabel("Mode:"), gbc);
@@ -206,24 +220,26 @@ public class EditCoursePage extends JPanel {
     }
 
     private void loadCourseDetails() {
-        try (Connection conn = DBConnection.getConnection()) {
-            String sql = "SELECT * FROM courses WHERE course_id=?";
-            PreparedStatement pst = conn.prepareStatement(sql);
-            pst.setString(1, courseId);
-            ResultSet rs = pst.executeQuery();
-
-            if (rs.next()) {
-                txtCourseId.setText(rs.getString("course_id"));
-                txtCourseName.setText(rs.getString("course_name"));
-                txtDescription.setText(rs.getString("description"));
-                txtDate.setText(rs.getString("course_date")); 
-                txtTime.setText(rs.getString("course_time"));
-                txtMode.setText(rs.getString("mode"));
-                txtCoordinator1.setText(rs.getString("coordinator1"));
-                txtCoordinator2.setText(rs.getString("coordinator2"));
+        UnitOfWork.load(this, "EditCoursePage.loadCourseDetails", () -> {
+            CourseRepository.Course found = courses.findById(courseId).orElse(null);
+            byte[] bytes = found != null && found.hasPosterImage() ? PosterCache.get(courseId).orElse(null) : null;
+            return new LoadedCourse(found, bytes);
+        }, loaded -> {
+            CourseRepository.Course course = loaded.course();
+
+            if (course != null) {
+                txtCourseId.setText(course.courseId());
+                txtCourseName.setText(course.courseName());
+                txtDescription.setText(course.description());
+                txtDate.setText(course.courseDate() != null ? course.courseDate().toString() : null); 
+                txtTime.setText(course.courseTime() != null ? course.courseTime().toString() : null);
+                txtDuration.setText(String.valueOf(course.durationMinutes()));
+                txtMode.setText(course.mode());
+                txtCoordinator1.setText(course.coordinator1());
+                txtCoordinator2.setText(course.coordinator2());
 
              
-                byte[] imageBytes = rs.getBytes("poster");
+                byte[] imageBytes = loaded.imageBytes();
                 if (imageBytes != null) {
                     ImageIcon icon = new ImageIcon(new ImageIcon(imageBytes)
                             .getImage().getScaledInstance(200, 130, Image.SCALE_SMOOTH));
@@ -233,10 +249,10 @@ public class EditCoursePage extends JPanel {
                 }
             }
 
-        } catch (Exception e) {
+        }, e -> {
             e.printStackTrace();
             JOptionPane.showMessageDialog(this, "Error loading course: " + e.getMessage());
-        }
+        });
     }
 
     private void saveChanges() {
@@ -245,37 +261,29 @@ public class EditCoursePage extends JPanel {
             return;
         }
 
-        Connection conn = null;
+        int durationMinutes;
         try {
-            conn = DBConnection.getConnection();
-            
-            
-            String sql;
-            if (selectedImageFile != null) {
-                sql = "UPDATE courses SET course_name=?, description=?, course_date=?, course_time=?, mode=?, coordinator1=?, coordinator2=?, poster=? WHERE course_id=?";
-            } else {
-                sql = "UPDATE courses SET course_name=?, description=?, course_date=?, course_time=?, mode=?, coordinator1=?, coordinator2=? WHERE course_id=?";
-            }
-            
-            PreparedStatement pst = conn.prepareStatement(sql);
-            int paramIndex = 1;
-            
-            pst.setString(paramIndex++, txtCourseName.getText().trim());
-            pst.setString(paramIndex++, txtDescription.getText().trim());
-            pst.setString(paramIndex++, txtDate.getText().trim());
-            pst.setString(paramIndex++, txtTime.getText().trim());
-            pst.setString(paramIndex++, txtMode.getText().trim());
-            pst.setString(paramIndex++, txtCoordinator1.getText().trim());
-            pst.setString(paramIndex++, txtCoordinator2.getText().trim());
-
-            if (selectedImageFile != null) {
-                FileInputStream fis = new FileInputStream(selectedImageFile);
-                pst.setBinaryStream(paramIndex++, fis, (int) selectedImageFile.length());
-            }
-
-            pst.setString(paramIndex++, courseId);
+            durationMinutes = Integer.parseInt(txtDuration.getText().trim());
+        } catch (NumberFormatException e) {
+            durationMinutes = 0;
+        }
+        if (durationMinutes <= 0) {
+            JOptionPane.showMessageDialog(this, "Duration must be a whole number of minutes.", "Validation Error", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
 
-            int updated = pst.executeUpdate();
+        String courseName = txtCourseName.getText().trim();
+        String description = txtDescription.getText().trim();
+        String date = txtDate.getText().trim();
+        String time = txtTime.getText().trim();
+        int duration = durationMinutes;
+        String mode = txtMode.getText().trim();
+        String coordinator1 = txtCoordinator1.getText().trim();
+        String coordinator2 = txtCoordinator2.getText().trim();
+        File posterFile = selectedImageFile;
+
+        UnitOfWork.submit(this, "EditCoursePage.saveChanges", () -> courses.updateDetails(courseId,
+                courseName, description, date, time, duration, mode, coordinator1, coordinator2, posterFile), updated -> {
             if (updated > 0) {
                 JOptionPane.showMessageDialog(this, "Course updated successfully! Please refresh list.");
                 
@@ -286,15 +294,13 @@ public class EditCoursePage extends JPanel {
                 
                
                 main.showPage("managecourses");
+                main.discardCoursePages(courseId);
             } else {
                 JOptionPane.showMessageDialog(this, "No changes were made!");
             }
-
-        } catch (Exception e) {
+        }, e -> {
             e.printStackTrace();
             JOptionPane.showMessageDialog(this, "Error saving changes: " + e.getMessage());
-        }
+        });
     }
 }
-
-
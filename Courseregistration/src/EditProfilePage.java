@@ -14,6 +14,8 @@ public class EditProfilePage extends JPanel {
     private JComboBox<String> cmbGender, cmbDept, cmbSemester;
     private JDateChooser dateChooser;
 
+    private final StudentRepository students = new StudentRepository();
+
     public EditProfilePage(MainFrame main, String admissionNo) {
         this.main = main;
         this.admissionNo = admissionNo;
@@ -121,87 +123,62 @@ public class EditProfilePage extends JPanel {
     }
 
     private void loadProfileData() {
-        try (Connection conn = DBConnection.getConnection()) {
-            String sql = "SELECT * FROM students WHERE admission_no = ?";
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setString(1, admissionNo);
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                txtRegNo.setText(rs.getString("reg_no"));
-                txtFullName.setText(rs.getString("full_name"));
+        UnitOfWork.load(this, "EditProfilePage.loadProfileData", () -> students.findProfile(admissionNo), found -> {
+            StudentRepository.Student s = found.orElse(null);
+
+            if (s != null) {
+                txtRegNo.setText(s.regNo());
+                txtFullName.setText(s.fullName());
                 
                 // Set ComboBox selection, handle potential null/mismatch
-                String gender = rs.getString("gender");
+                String gender = s.gender();
                 if (gender != null) cmbGender.setSelectedItem(gender);
 
                 // ✅ Load Date for JDateChooser
-                Date dob = rs.getDate("dob");
+                Date dob = s.dob();
                 if (dob != null) {
                     dateChooser.setDate(dob);
                 }
 
-                txtClassNo.setText(rs.getString("class_no"));
+                txtClassNo.setText(s.classNo());
                 
                 // Set ComboBox selection, handle potential null/mismatch
-                String dept = rs.getString("dept");
+                String dept = s.dept();
                 if (dept != null) cmbDept.setSelectedItem(dept);
                 
-                String semester = rs.getString("semester");
+                String semester = s.semester();
                 if (semester != null) cmbSemester.setSelectedItem(semester);
                 
-                txtBatch.setText(rs.getString("batch"));
-                txtPhone.setText(rs.getString("phone"));
-                txtEmail.setText(rs.getString("email"));
+                txtBatch.setText(s.batch());
+                txtPhone.setText(s.phone());
+                txtEmail.setText(s.email());
             }
-
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, "Error loading profile: " + e.getMessage());
-        }
+        }, e -> JOptionPane.showMessageDialog(this, "Error loading profile: " + e.getMessage()));
     }
 
     private void saveChanges() {
-        try (Connection conn = DBConnection.getConnection()) {
-            String sql = """
-                UPDATE students
-                SET reg_no=?, full_name=?, gender=?, dob=?, class_no=?, dept=?, semester=?, batch=?, phone=?, email=?
-                WHERE admission_no=?
-            """;
-            PreparedStatement stmt = conn.prepareStatement(sql);
-
-            SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
-            // Check if dateChooser has a date selected
-            String dob = (dateChooser.getDate() != null) ? sdf.format(dateChooser.getDate()) : null;
-
-            stmt.setString(1, txtRegNo.getText());
-            stmt.setString(2, txtFullName.getText());
-            stmt.setString(3, cmbGender.getSelectedItem().toString());
-            
-            // Handle DOB being null (if allowed by DB schema)
-            if (dob != null) {
-                stmt.setString(4, dob);
-            } else {
-                stmt.setNull(4, Types.DATE);
-            }
-            
-            stmt.setString(5, txtClassNo.getText());
-            stmt.setString(6, cmbDept.getSelectedItem().toString());
-            stmt.setString(7, cmbSemester.getSelectedItem().toString());
-            stmt.setString(8, txtBatch.getText());
-            stmt.setString(9, txtPhone.getText());
-            stmt.setString(10, txtEmail.getText());
-            stmt.setString(11, admissionNo);
-            
-            stmt.executeUpdate();
-
+        // Check if dateChooser has a date selected
+        java.sql.Date dob = (dateChooser.getDate() != null) ? new java.sql.Date(dateChooser.getDate().getTime()) : null;
+
+        StudentRepository.Student profile = new StudentRepository.Student(
+                admissionNo,
+                txtRegNo.getText(),
+                txtFullName.getText(),
+                cmbGender.getSelectedItem().toString(),
+                dob,
+                txtClassNo.getText(),
+                cmbDept.getSelectedItem().toString(),
+                cmbSemester.getSelectedItem().toString(),
+                txtBatch.getText(),
+                txtPhone.getText(),
+                txtEmail.getText());
+
+        UnitOfWork.submit(this, "EditProfilePage.saveChanges", () -> students.updateProfile(profile), updated -> {
             JOptionPane.showMessageDialog(this, "Profile updated successfully!");
 
             // 🔴 FIX: Call showProfilePage to ensure the ProfilePage is refreshed and displayed
-            main.showProfilePage(admissionNo);
-
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, "Error updating profile: " + e.getMessage());
-        }
+            main.refreshProfilePage(admissionNo);
+        }, e -> JOptionPane.showMessageDialog(this, "Error updating profile: " + e.getMessage()));
     }
 
     private void styleButton(JButton b, Color bg, Color hover) {
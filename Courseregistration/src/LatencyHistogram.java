@@ -0,0 +1,79 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free log-linear latency histogram. Each power of two (in microseconds)
+ * is split into eight sub-buckets, so reported percentiles are within ~12%.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKETS = 8;
+    private static final int POWERS = 40;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(POWERS * SUB_BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalMicros = new LongAdder();
+    private volatile long maxMicros;
+
+    public void record(long micros) {
+        long value = Math.max(0, micros);
+        buckets.incrementAndGet(indexOf(value));
+        count.increment();
+        totalMicros.add(value);
+        if (value > maxMicros) {
+            synchronized (this) {
+                if (value > maxMicros) {
+                    maxMicros = value;
+                }
+            }
+        }
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public long meanMicros() {
+        long n = count.sum();
+        return n == 0 ? 0 : totalMicros.sum() / n;
+    }
+
+    public long maxMicros() {
+        return maxMicros;
+    }
+
+    /** Upper bound of the bucket holding the given percentile (0-100). */
+    public long percentileMicros(double percentile) {
+        long n = count.sum();
+        if (n == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(n * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            seen += buckets.get(i);
+            if (seen >= Math.max(1, rank)) {
+                return Math.min(upperBound(i), maxMicros);
+            }
+        }
+        return maxMicros;
+    }
+
+    private static int indexOf(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int power = 63 - Long.numberOfLeadingZeros(micros);
+        int sub = (int) ((micros >>> (power - 3)) & (SUB_BUCKETS - 1));
+        int index = (power - 2) * SUB_BUCKETS + sub;
+        return Math.min(index, POWERS * SUB_BUCKETS - 1);
+    }
+
+    private static long upperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int power = index / SUB_BUCKETS + 2;
+        int sub = index % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + sub + 1) << (power - 3)) - 1;
+    }
+}
@@ -0,0 +1,83 @@
+import javax.swing.ImageIcon;
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+import javax.swing.JLayeredPane;
+import javax.swing.JRootPane;
+import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import java.awt.Component;
+import java.awt.Image;
+import java.awt.Rectangle;
+import java.net.URL;
+
+/**
+ * The loading.gif spinner shown over a page while a UnitOfWork for it runs. It
+ * appears only if the work is still going after a short delay, so quick loads do
+ * not flash, and sits in the frame's layered pane over the centre of the part of
+ * the page that is on screen. EDT only.
+ */
+final class LoadingIndicator {
+
+    private static final int DELAY_MS = 200;
+    private static final int WIDTH = 160;
+    private static final int HEIGHT = 90;
+
+    private static ImageIcon spinner;
+
+    private final Component owner;
+    private final Timer timer;
+    private JLayeredPane layers;
+    private JLabel label;
+
+    LoadingIndicator(Component owner) {
+        this.owner = owner;
+        this.timer = new Timer(DELAY_MS, e -> show());
+        timer.setRepeats(false);
+    }
+
+    void start() {
+        timer.start();
+    }
+
+    void stop() {
+        timer.stop();
+        if (label != null) {
+            Rectangle bounds = label.getBounds();
+            layers.remove(label);
+            layers.repaint(bounds);
+            label = null;
+        }
+    }
+
+    private void show() {
+        if (!(owner instanceof JComponent page) || !page.isShowing()) {
+            return;
+        }
+        JRootPane root = SwingUtilities.getRootPane(page);
+        Rectangle visible = page.getVisibleRect();
+        // A thumbnail smaller than the spinner shows its own "Loading..." text instead.
+        if (root == null || visible.width < WIDTH || visible.height < HEIGHT) {
+            return;
+        }
+        layers = root.getLayeredPane();
+        Rectangle area = SwingUtilities.convertRectangle(page, visible, layers);
+
+        ImageIcon icon = spinner();
+        label = icon != null ? new JLabel(icon) : new JLabel("Loading...", SwingConstants.CENTER);
+        label.setBounds(area.x + (area.width - WIDTH) / 2, area.y + (area.height - HEIGHT) / 2, WIDTH, HEIGHT);
+        layers.add(label, JLayeredPane.PALETTE_LAYER);
+    }
+
+    // SCALE_DEFAULT keeps the GIF animated; the smooth filters only render its first frame.
+    private static ImageIcon spinner() {
+        if (spinner == null) {
+            URL url = LoadingIndicator.class.getResource("/loading.gif");
+            if (url == null) {
+                return null;
+            }
+            spinner = new ImageIcon(new ImageIcon(url).getImage().getScaledInstance(WIDTH, HEIGHT, Image.SCALE_DEFAULT));
+        }
+        return spinner;
+    }
+}
@@ -8,6 +8,8 @@ public class Login extends JPanel {
     private JPasswordField txtPass;
     private MainFrame main;  
 
+    private final StudentRepository students = new StudentRepository();
+
     public Login(MainFrame main) {
         this.main = main;
         initComponents();
@@ -138,38 +140,26 @@ public class Login extends JPanel {
             return;
         }
 
-        String sql = "SELECT full_name FROM students WHERE admission_no = ? AND password = ?";
-
-        try (Connection con = DBConnection.getConnection();
-             PreparedStatement pst = con.prepareStatement(sql)) {
-
-            pst.setString(1, admissionNo);
-            pst.setString(2, password);
-
-            try (ResultSet rs = pst.executeQuery()) {
-                if (rs.next()) {
-                    String fullName = rs.getString("full_name");
-                    JOptionPane.showMessageDialog(this, "Login successful for " + fullName,
-                            "Success", JOptionPane.INFORMATION_MESSAGE);
-
-                    if (main != null) {
-                        Dashboard dashboard = new Dashboard(main, admissionNo, fullName);
-                        main.addPage("dashboard", dashboard);
-                        main.showPage("dashboard");
-                    }
+        UnitOfWork.submit(this, "Login.doLogin", () -> students.authenticate(admissionNo, password), found -> {
+            String fullName = found.orElse(null);
+            if (fullName != null) {
+                JOptionPane.showMessageDialog(this, "Login successful for " + fullName,
+                        "Success", JOptionPane.INFORMATION_MESSAGE);
 
-                    clearFields();
-                } else {
-                    JOptionPane.showMessageDialog(this, "Invalid credentials.",
-                            "Login failed", JOptionPane.ERROR_MESSAGE);
+                if (main != null) {
+                    main.startSession(admissionNo, fullName);
                 }
-            }
 
-        } catch (SQLException ex) {
+                clearFields();
+            } else {
+                JOptionPane.showMessageDialog(this, "Invalid credentials.",
+                        "Login failed", JOptionPane.ERROR_MESSAGE);
+            }
+        }, ex -> {
             ex.printStackTrace();
             JOptionPane.showMessageDialog(this, "Database error: " + ex.getMessage(),
                     "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        });
     }
 
     private void clearFields() {
@@ -1,24 +1,40 @@
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.ActionListener;
+import java.awt.event.MouseListener;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.net.URL; 
 import java.util.Map; 
+import java.util.function.Supplier;
 
 public class MainFrame extends JFrame {
+
+    /** A page the LRU hands back on a later visit; reload() re-reads what it shows, which may have changed since. */
+    public interface CachedPage {
+        void reload();
+    }
+
+    private static final int MAX_DYNAMIC_PAGES = Math.max(1, DBConfig.getInt("db.pageCache.maxPages", 8));
     
     private CardLayout cardLayout;
     private JPanel cardPanel;
     private HashMap<String, JPanel> pages;
+    // How to build each fixed page; showPage builds it the first time it is asked for.
+    private final Map<String, Supplier<JPanel>> factories = new HashMap<>();
+    // Pages built per course or student, least recently shown first; the oldest are disposed.
+    private final LinkedHashMap<String, JPanel> dynamicPages = new LinkedHashMap<>(16, 0.75f, true);
 
     
     private AvailableCoursesPage availableCoursesPage;
     private MyCoursesPage myCoursesPage;
     private MyCertificatesPage myCertificatesPage;
 
-  
-    private CourseAttendancePage courseAttendancePage;
+    // The logged-in student, or null; its pages are disposed at logout.
+    private StudentSession session;
 
-    private String currentAdmissionNo; 
+    private JLabel degradedBanner;
 
     public MainFrame() {
         setTitle("Edura");
@@ -44,34 +60,30 @@ public class MainFrame extends JFrame {
     }
     
     private void finishSetup() {
+        long started = System.nanoTime();
         cardLayout = new CardLayout();
         cardPanel = new JPanel(cardLayout);
         pages = new HashMap<>();
         
      
-        addPage("welcome", new WelcomePage(this));
-        addPage("studentoptions", new StudentOptionPage(this)); 
-        addPage("login", new Login(this));
-        addPage("signup", new SignupForm(this)); 
-        addPage("adminlogin", new AdminLogin(this));
-        addPage("reset", new ResetPassword(this));
+        register("welcome", () -> new WelcomePage(this));
+        register("studentoptions", () -> new StudentOptionPage(this)); 
+        register("login", () -> new Login(this));
+        register("signup", () -> new SignupForm(this)); 
+        register("adminlogin", () -> new AdminLogin(this));
+        register("reset", () -> new ResetPassword(this));
         
       
-        addPage("managecourses", new ManageCoursesPage(this)); 
-        AdminPage adminPage = new AdminPage(this);
-        addPage("admin", adminPage);
+        register("managecourses", () -> new ManageCoursesPage(this)); 
+        register("admin", () -> new AdminPage(this));
       
-        addPage("managestudents", new ManageCoursesPage(this)); 
-        addPage("viewstudents", new ViewStudentsByCoursePage(this));
-
-        AddCoursePage addCoursePage = new AddCoursePage(this);
-        addPage("addcourse", addCoursePage);
-        
-       
-        courseAttendancePage = new CourseAttendancePage(this);
-        addPage("courseattendance", courseAttendancePage);
+        register("managestudents", () -> new ManageCoursesPage(this)); 
+        register("viewstudents", () -> new ViewStudentsByCoursePage(this));
+        register("addcourse", () -> new AddCoursePage(this));
+        register("courseattendance", () -> new CourseAttendancePage(this));
 
         add(cardPanel);
+        add(createDegradedBanner(), BorderLayout.NORTH);
         showPage("welcome");
         
       
@@ -79,15 +91,132 @@ public class MainFrame extends JFrame {
         
        
         setVisible(true); 
+        System.out.println("Startup: welcome screen ready in " + millisSince(started) + " ms");
     }
     
+    private JLabel createDegradedBanner() {
+        degradedBanner = new JLabel("Database unreachable - showing the last loaded data. Reconnecting in the background...", SwingConstants.CENTER);
+        degradedBanner.setOpaque(true);
+        degradedBanner.setBackground(new Color(231, 76, 60));
+        degradedBanner.setForeground(Color.WHITE);
+        degradedBanner.setFont(new Font("Segoe UI", Font.BOLD, 13));
+        degradedBanner.setBorder(BorderFactory.createEmptyBorder(6, 10, 6, 10));
+        degradedBanner.setVisible(DBConnection.getBreaker().state() == CircuitBreaker.State.OPEN);
+        DBConnection.getBreaker().addListener(state -> SwingUtilities.invokeLater(() ->
+                degradedBanner.setVisible(state == CircuitBreaker.State.OPEN)));
+        return degradedBanner;
+    }
+
+    /** Adds a page, disposing the one it replaces if a page of that name already existed. */
     public void addPage(String name, JPanel page) {
-        pages.put(name, page);
+        JPanel previous = pages.put(name, page);
+        if (previous != null && previous != page) {
+            disposePage(previous);
+        }
         cardPanel.add(page, name);
     }
 
+    // Shows the cached page for name if it is still held, building it only on a miss or when
+    // refresh asks for a new one. A reused CachedPage reloads its data but keeps its components.
+    private void showDynamicPage(String name, boolean refresh, Supplier<JPanel> factory) {
+        JPanel cached = refresh ? null : dynamicPages.get(name);
+        if (cached != null) {
+            showPage(name);
+            if (cached instanceof CachedPage page) {
+                page.reload();
+            }
+            return;
+        }
+        addPage(name, factory.get());
+        dynamicPages.put(name, pages.get(name));
+        Iterator<Map.Entry<String, JPanel>> eldest = dynamicPages.entrySet().iterator();
+        while (dynamicPages.size() > MAX_DYNAMIC_PAGES && eldest.hasNext()) {
+            Map.Entry<String, JPanel> entry = eldest.next();
+            eldest.remove();
+            pages.remove(entry.getKey());
+            disposePage(entry.getValue());
+        }
+        showPage(name);
+    }
+
+    /**
+     * Drops the cached pages that show courseId, so the next visit rebuilds them after
+     * the course or a registration for it has changed.
+     */
+    public void discardCoursePages(String courseId) {
+        Iterator<Map.Entry<String, JPanel>> it = dynamicPages.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, JPanel> entry = it.next();
+            String name = entry.getKey();
+            if (name.equals("admincoursedetails_" + courseId) || name.equals("editcourse_" + courseId)
+                    || name.equals("coursedetails_" + courseId) || name.startsWith("registereddetails_" + courseId + "_")) {
+                it.remove();
+                pages.remove(name);
+                disposePage(entry.getValue());
+            }
+        }
+    }
+
+    private void disposePage(JPanel page) {
+        UnitOfWork.cancelWithin(page);
+        cardPanel.remove(page);
+        release(page);
+    }
+
+    // Flushes decoded images and drops listeners, so nothing that still refers to a
+    // discarded component keeps the rest of its page reachable.
+    private static void release(Component c) {
+        for (MouseListener l : c.getMouseListeners()) {
+            c.removeMouseListener(l);
+        }
+        if (c instanceof AbstractButton button) {
+            for (ActionListener l : button.getActionListeners()) {
+                button.removeActionListener(l);
+            }
+            flush(button.getIcon());
+            button.setIcon(null);
+        } else if (c instanceof JLabel label) {
+            flush(label.getIcon());
+            label.setIcon(null);
+        }
+        if (c instanceof Container container) {
+            for (Component child : container.getComponents()) {
+                release(child);
+            }
+        }
+    }
+
+    private static void flush(Icon icon) {
+        if (icon instanceof ImageIcon image && image.getImage() != null) {
+            image.getImage().flush();
+        }
+    }
+
+    /** Makes a page available under name without building it until it is first shown. */
+    private void register(String name, Supplier<JPanel> factory) {
+        factories.put(name, factory);
+    }
+
+    private JPanel ensurePage(String name) {
+        JPanel page = pages.get(name);
+        Supplier<JPanel> factory = factories.get(name);
+        if (page == null && factory != null) {
+            long started = System.nanoTime();
+            page = factory.get();
+            addPage(name, page);
+            System.out.println("Built page '" + name + "' in " + millisSince(started) + " ms");
+        }
+        return page;
+    }
+
+    private static long millisSince(long startedNanos) {
+        return (System.nanoTime() - startedNanos) / 1_000_000;
+    }
+
   
     public void showPage(String name) {
+        UnitOfWork.cancelAllExcept(ensurePage(name));
+
         if ("signup".equals(name)) {
             JPanel page = pages.get(name);
             if (page instanceof SignupForm) {
@@ -100,78 +229,118 @@ public class MainFrame extends JFrame {
 
  
     public void showProfilePage(String admissionNo) {
-        ProfilePage profilePage = new ProfilePage(this, admissionNo);
-        addPage("profilePage_" + admissionNo, profilePage);
-        showPage("profilePage_" + admissionNo);
+        ownBySession("profilePage_" + admissionNo);
+        showDynamicPage("profilePage_" + admissionNo, false, () -> new ProfilePage(this, admissionNo));
+    }
+
+    /** Rebuilds the profile page after the student's details were saved. */
+    public void refreshProfilePage(String admissionNo) {
+        ownBySession("profilePage_" + admissionNo);
+        showDynamicPage("profilePage_" + admissionNo, true, () -> new ProfilePage(this, admissionNo));
     }
     
     public void showAdminCourseDetailsPage(String courseId) {
-        AdminCourseDetailsPage detailsPage = new AdminCourseDetailsPage(this, courseId);
-        addPage("admincoursedetails_" + courseId, detailsPage);
-        showPage("admincoursedetails_" + courseId);
+        showDynamicPage("admincoursedetails_" + courseId, false, () -> new AdminCourseDetailsPage(this, courseId));
     }
 
+    // Always rebuilt: the form must start from the course as it is stored now.
     public void showEditCoursePage(String courseId, ManageCoursesPage parentPage) {
-        EditCoursePage editPage = new EditCoursePage(this, courseId, parentPage);
-        String pageName = "editcourse_" + courseId;
-        
-        if (pages.containsKey(pageName)) {
-            cardPanel.remove(pages.get(pageName));
-            pages.remove(pageName);
-        }
-        
-        addPage(pageName, editPage);
-        showPage(pageName);
+        showDynamicPage("editcourse_" + courseId, true, () -> new EditCoursePage(this, courseId, parentPage));
     }
 
     public void showCourseRegisteredDetails(String courseId, String studentAdmissionNo) {
-        CourseRegisteredDetailsPage detailsPage = new CourseRegisteredDetailsPage(this, studentAdmissionNo, courseId);
-        String pageName = "registereddetails_" + courseId + "_" + studentAdmissionNo;
-        
-        if (pages.containsKey(pageName)) {
-            cardPanel.remove(pages.get(pageName));
-            pages.remove(pageName);
+        ownBySession("registereddetails_" + courseId + "_" + studentAdmissionNo);
+        showDynamicPage("registereddetails_" + courseId + "_" + studentAdmissionNo, false,
+                () -> new CourseRegisteredDetailsPage(this, studentAdmissionNo, courseId));
+    }
+
+    /** Logs a student in: ends any previous session and shows a dashboard bound to this one. */
+    public void startSession(String admissionNo, String fullName) {
+        endSession();
+        session = new StudentSession(admissionNo, fullName);
+        addStudentPage("dashboard", new Dashboard(this, admissionNo, fullName));
+        showPage("dashboard");
+    }
+
+    public void logout() {
+        showPage("login");
+        endSession();
+    }
+
+    public void logoutAdmin() {
+        showPage("adminlogin");
+        Repository.clearLastResults();
+    }
+
+    /**
+     * Disposes every page built for the current student and forgets the results
+     * their queries left in the last-result cache, so an outage during the next
+     * session cannot replay them. The connection pool and PosterCache stay warm.
+     */
+    private void endSession() {
+        Repository.clearLastResults();
+        if (session == null) {
+            return;
         }
-        
-        addPage(pageName, detailsPage);
-        showPage(pageName);
+        for (String name : session.pageNames()) {
+            JPanel page = pages.remove(name);
+            dynamicPages.remove(name);
+            if (page != null) {
+                disposePage(page);
+            }
+        }
+        availableCoursesPage = null;
+        myCoursesPage = null;
+        myCertificatesPage = null;
+        session = null;
     }
 
-    public void setCurrentStudent(String admissionNo) {
-        this.currentAdmissionNo = admissionNo;
+    public StudentSession getSession() {
+        return session;
+    }
+
+    /** Adds a page that shows the logged-in student's data and goes away at logout. */
+    public void addStudentPage(String name, JPanel page) {
+        ownBySession(name);
+        addPage(name, page);
+    }
+
+    private void ownBySession(String name) {
+        if (session != null) {
+            session.own(name);
+        }
+    }
+
+    private void buildStudentPages() {
+        if (session == null) {
+            return;
+        }
+        String admissionNo = session.admissionNo();
 
       
         if (availableCoursesPage == null) {
-            availableCoursesPage = new AvailableCoursesPage(this, currentAdmissionNo);
-            addPage("availablecourses", availableCoursesPage);
+            availableCoursesPage = new AvailableCoursesPage(this, admissionNo);
+            addStudentPage("availablecourses", availableCoursesPage);
         }
 
         if (myCoursesPage == null) {
-            myCoursesPage = new MyCoursesPage(this, currentAdmissionNo);
-            addPage("mycourses", myCoursesPage);
+            myCoursesPage = new MyCoursesPage(this, admissionNo);
+            addStudentPage("mycourses", myCoursesPage);
         }
         
         if (myCertificatesPage == null) {
-            myCertificatesPage = new MyCertificatesPage(this, currentAdmissionNo);
-            addPage("mycertificates", myCertificatesPage);
+            myCertificatesPage = new MyCertificatesPage(this, admissionNo);
+            addStudentPage("mycertificates", myCertificatesPage);
         }
     }
     
   
     public void showCourseDetailsPage(String courseId, String studentAdmissionNo) {
-        String pageName = "coursedetails_" + courseId;
-        
-       
-        if (pages.containsKey(pageName)) {
-            cardPanel.remove(pages.get(pageName));
-            pages.remove(pageName);
-        }
-        
-        CourseDetailsPage courseDetails = new CourseDetailsPage(this, courseId, studentAdmissionNo);
-        addPage(pageName, courseDetails); 
-        showPage(pageName);
+        ownBySession("coursedetails_" + courseId);
+        showDynamicPage("coursedetails_" + courseId, false, () -> new CourseDetailsPage(this, courseId, studentAdmissionNo));
     }
     
+    /** The page if it has been built, else null; a page built later loads fresh data anyway. */
     public JPanel getPage(String name) {
         return pages.get(name);
     }
@@ -183,6 +352,7 @@ public class MainFrame extends JFrame {
    
 
     public void showAvailableCoursesPage() {
+        buildStudentPages();
         if (availableCoursesPage != null) {
             availableCoursesPage.refreshCourses();
             showPage("availablecourses");
@@ -190,6 +360,7 @@ public class MainFrame extends JFrame {
     }
  
     public void showMyCoursesPage() {
+        buildStudentPages();
         if (myCoursesPage != null) {
             myCoursesPage.loadCourses(); 
             showPage("mycourses");
@@ -197,6 +368,7 @@ public class MainFrame extends JFrame {
     }
     
     public void showMyCertificatesPage() {
+        buildStudentPages();
         if (myCertificatesPage != null) {
             myCertificatesPage.loadCertificates(); 
             showPage("mycertificates");
@@ -206,6 +378,7 @@ public class MainFrame extends JFrame {
    
     
     public static void main(String[] args) {
+        SchemaMigrator.migrateOnStartup();
         SwingUtilities.invokeLater(() -> {
             new MainFrame().finishSetup();
         });
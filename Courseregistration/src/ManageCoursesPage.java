@@ -4,6 +4,7 @@ import java.awt.event.*;
 import java.sql.*;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.List;
 import java.io.File;
 
 public class ManageCoursesPage extends JPanel {
@@ -12,6 +13,11 @@ public class ManageCoursesPage extends JPanel {
     private JPanel upcomingCoursesPanel;
     private JPanel completedCoursesPanel;
     private JPanel deletedCoursesPanel;
+    private ScrollPager<CourseRepository.CourseSummary> upcomingPager;
+    private ScrollPager<CourseRepository.CourseSummary> completedPager;
+    private ScrollPager<CourseRepository.CourseSummary> deletedPager;
+    private PagedTabs pagedTabs;
+    private volatile String searchTerm = "";
     
    
     private JTextField txtSearch;
@@ -21,11 +27,13 @@ public class ManageCoursesPage extends JPanel {
     private Color primaryDark = new Color(41, 128, 185);
     private Color danger = new Color(231, 76, 60);
 
+    private final CourseRepository courses = new CourseRepository();
+
     public ManageCoursesPage(MainFrame main) {
         this.main = main;
         setLayout(new BorderLayout());
         initUI();
-        loadCourses("upcoming", ""); 
+        refresh(); 
     }
 
     private void initUI() {
@@ -52,8 +60,14 @@ public class ManageCoursesPage extends JPanel {
             main.showPage("admin");
         });
 
+        JButton btnPurge = new JButton("Purge Archived");
+        styleButton(btnPurge, new Color(192, 57, 43), new Color(150, 40, 30));
+        btnPurge.setPreferredSize(new Dimension(140, 35));
+        btnPurge.addActionListener(e -> purgeArchived());
+
         JPanel headerButtons = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 10));
         headerButtons.setOpaque(false);
+        headerButtons.add(btnPurge);
         headerButtons.add(btnBack);
 
         header.add(lblTitle, BorderLayout.WEST);
@@ -99,13 +113,26 @@ public class ManageCoursesPage extends JPanel {
         completedCoursesPanel = createCourseContainerPanel();
         deletedCoursesPanel = createCourseContainerPanel();
 
-        tabbedPane.addTab(" Upcoming", null, new JScrollPane(upcomingCoursesPanel), "Courses yet to happen");
-        tabbedPane.addTab(" Completed", null, new JScrollPane(completedCoursesPanel), "Past courses");
-        tabbedPane.addTab(" Deleted/Archived", null, new JScrollPane(deletedCoursesPanel), "Archived or logic-deleted courses");
+        JScrollPane upcomingScroll = new JScrollPane(upcomingCoursesPanel);
+        JScrollPane completedScroll = new JScrollPane(completedCoursesPanel);
+        JScrollPane deletedScroll = new JScrollPane(deletedCoursesPanel);
+        tabbedPane.addTab(" Upcoming", null, upcomingScroll, "Courses yet to happen");
+        tabbedPane.addTab(" Completed", null, completedScroll, "Past courses");
+        tabbedPane.addTab(" Deleted/Archived", null, deletedScroll, "Archived or logic-deleted courses");
+
+        upcomingPager = createPager(upcomingCoursesPanel, upcomingScroll, "upcoming",
+                after -> courses.findUpcoming(searchTerm, after));
+        completedPager = createPager(completedCoursesPanel, completedScroll, "completed",
+                after -> courses.findCompleted(searchTerm, after));
+        deletedPager = createPager(deletedCoursesPanel, deletedScroll, "deleted",
+                after -> courses.findDeleted(searchTerm, after));
+
+        // Only the selected tab is fetched; the others wait until they are opened.
+        pagedTabs = new PagedTabs(tabbedPane);
+        pagedTabs.add(upcomingPager, false);
+        pagedTabs.add(completedPager, false);
+        pagedTabs.add(deletedPager, false);
 
-      
-        tabbedPane.addChangeListener(e -> refresh());
-        
    
         btnSearch.addActionListener(e -> refresh());
         
@@ -123,98 +150,49 @@ public class ManageCoursesPage extends JPanel {
         return panel;
     }
 
-    private void loadCourses(String category, String searchTerm) {
-        JPanel targetPanel;
-        String sql;
-        
-     
-        Date currentDate = new Date();
-        SimpleDateFormat dateOnlyFormat = new SimpleDateFormat("yyyy-MM-dd");
-        SimpleDateFormat timeOnlyFormat = new SimpleDateFormat("HH:mm:ss");
-        
-        String dateString = dateOnlyFormat.format(currentDate);
-        String timeString = timeOnlyFormat.format(currentDate);
-        
-    
-        String filter = "";
-        if (searchTerm != null && !searchTerm.trim().isEmpty()) {
-            String term = "%" + searchTerm.trim().toLowerCase() + "%";
-        
-            filter = " AND (LOWER(course_ame) LIKE '" + term + "' OR LOWER(course_id) LIKE '" + term + "')";
-        }
+    private ScrollPager<CourseRepository.CourseSummary> createPager(JPanel panel, JScrollPane scroll, String category,
+                                                                    ScrollPager.PageFetch<CourseRepository.CourseSummary> fetch) {
+        return new ScrollPager<>(panel, scroll, "ManageCoursesPage.loadCourses", fetch,
+                (rows, first, more) -> showCourses(panel, scroll, category, rows, first),
+                ex -> {
+                    ex.printStackTrace();
+                    JOptionPane.showMessageDialog(this, "Error loading " + category + " courses: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
+                });
+    }
 
-        switch (category) {
-            case "upcoming":
-                targetPanel = upcomingCoursesPanel;
-              
-                sql = "SELECT * FROM courses WHERE is_deleted = FALSE AND (" +
-                      "course_date > '" + dateString + "' OR " +
-                      "(course_date = '" + dateString + "' AND course_time >= '" + timeString + "')" +
-                      ")" + filter + " ORDER BY course_date ASC, course_time ASC";
-                break;
-            case "completed":
-                targetPanel = completedCoursesPanel;
-           
-                sql = "SELECT * FROM courses WHERE is_deleted = FALSE AND (" +
-                      "course_date < '" + dateString + "' OR " +
-                      "(course_date = '" + dateString + "' AND course_time < '" + timeString + "')" +
-                      ")" + filter + " ORDER BY course_date DESC, course_time DESC";
-                break;
-            case "deleted":
-                targetPanel = deletedCoursesPanel;
-                sql = "SELECT * FROM courses WHERE is_deleted = TRUE" + filter + " ORDER BY course_date DESC"; 
-                break;
-            default:
-                return;
+    private void showCourses(JPanel targetPanel, JScrollPane scroll, String category,
+                             List<CourseRepository.CourseSummary> rows, boolean first) {
+        if (first) {
+            targetPanel.removeAll();
         }
 
-        targetPanel.removeAll();
-
-        try (Connection conn = DBConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            boolean foundCourses = false;
-            while (rs.next()) {
-                foundCourses = true;
-                String courseId = rs.getString("course_id");
-                String name = rs.getString("course_name");
-                Date date = rs.getDate("course_date");
-                Time time = rs.getTime("course_time");
-                String mode = rs.getString("mode");
-                String poster = rs.getString("poster"); 
-
-                JPanel courseCard = createCourseCard(courseId, name, date, time, mode, poster, category);
-                targetPanel.add(courseCard);
-                targetPanel.add(Box.createVerticalStrut(10));
-            }
+        for (CourseRepository.CourseSummary course : rows) {
+            JPanel courseCard = createCourseCard(course.courseId(), course.courseName(), course.courseDate(),
+                    course.courseTime(), course.mode(), course.poster(), course.hasPosterImage(), category);
+            targetPanel.add(courseCard);
+            targetPanel.add(Box.createVerticalStrut(10));
+        }
+        
+        if (first && rows.isEmpty()) {
+             JLabel noCourses = new JLabel("No " + category + " courses found" + (searchTerm.isEmpty() ? "." : " matching '" + searchTerm + "'."));
+             noCourses.setFont(new Font("Segoe UI", Font.ITALIC, 16));
+             noCourses.setForeground(Color.GRAY);
             
-            if (!foundCourses) {
-                 JLabel noCourses = new JLabel("No " + category + " courses found" + (searchTerm.isEmpty() ? "." : " matching '" + searchTerm + "'."));
-                 noCourses.setFont(new Font("Segoe UI", Font.ITALIC, 16));
-                 noCourses.setForeground(Color.GRAY);
-                
-                 targetPanel.add(Box.createVerticalGlue());
-                 noCourses.setAlignmentX(Component.CENTER_ALIGNMENT);
-                 targetPanel.add(noCourses);
-                 targetPanel.add(Box.createVerticalGlue());
-            }
-
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Error loading " + category + " courses: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
+             targetPanel.add(Box.createVerticalGlue());
+             noCourses.setAlignmentX(Component.CENTER_ALIGNMENT);
+             targetPanel.add(noCourses);
+             targetPanel.add(Box.createVerticalGlue());
         }
 
         targetPanel.revalidate();
         targetPanel.repaint();
        
-        SwingUtilities.invokeLater(() -> {
-             JScrollPane scroll = (JScrollPane) tabbedPane.getComponentAt(tabbedPane.getSelectedIndex());
-             scroll.getVerticalScrollBar().setValue(0);
-        });
+        if (first) {
+            SwingUtilities.invokeLater(() -> scroll.getVerticalScrollBar().setValue(0));
+        }
     }
     
-    private JPanel createCourseCard(String courseId, String name, Date date, Time time, String mode, String poster, String category) {
+    private JPanel createCourseCard(String courseId, String name, Date date, Time time, String mode, String poster, boolean hasPosterImage, String category) {
         JPanel courseCard = new JPanel(new BorderLayout(10, 0));
         courseCard.setMaximumSize(new Dimension(750, 100));
         courseCard.setBorder(BorderFactory.createLineBorder(primary, 1));
@@ -237,7 +215,13 @@ public class ManageCoursesPage extends JPanel {
         lblPoster.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
         
   
-        if (poster != null && !poster.trim().isEmpty() && !poster.equals("No file chosen")) {
+        if (hasPosterImage) {
+        
+  
+            PosterCache.loadInto(lblPoster, courseId, 70, 70);
+        
+  
+        } else if (poster != null && !poster.trim().isEmpty() && !poster.equals("No file chosen")) {
             File posterFile = new File("posters/" + poster);
             if (posterFile.exists()) {
                 ImageIcon icon = new ImageIcon(posterFile.getAbsolutePath());
@@ -362,20 +346,17 @@ public class ManageCoursesPage extends JPanel {
                 "Confirm Archive", JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE);
         
         if (confirm == JOptionPane.YES_OPTION) {
-            try (Connection conn = DBConnection.getConnection();
-                 PreparedStatement pst = conn.prepareStatement("UPDATE courses SET is_deleted = TRUE WHERE course_id = ?")) {
-                
-                pst.setString(1, courseId);
-                if (pst.executeUpdate() > 0) {
+            UnitOfWork.submit(this, "ManageCoursesPage.archiveCourse", () -> courses.setDeleted(courseId, true), archived -> {
+                if (archived) {
                     JOptionPane.showMessageDialog(this, "Course successfully archived.", "Success", JOptionPane.INFORMATION_MESSAGE);
                     refresh(); 
                 } else {
                     JOptionPane.showMessageDialog(this, "Course ID not found.", "Error", JOptionPane.ERROR_MESSAGE);
                 }
-            } catch (SQLException ex) {
+            }, ex -> {
                 JOptionPane.showMessageDialog(this, "Error archiving course: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
                 ex.printStackTrace();
-            }
+            });
         }
     }
     
@@ -385,11 +366,8 @@ public class ManageCoursesPage extends JPanel {
                 "Confirm Restore", JOptionPane.YES_NO_OPTION, JOptionPane.QUESTION_MESSAGE);
         
         if (confirm == JOptionPane.YES_OPTION) {
-            try (Connection conn = DBConnection.getConnection();
-                 PreparedStatement pst = conn.prepareStatement("UPDATE courses SET is_deleted = FALSE WHERE course_id = ?")) {
-                
-                pst.setString(1, courseId);
-                if (pst.executeUpdate() > 0) {
+            UnitOfWork.submit(this, "ManageCoursesPage.restoreCourse", () -> courses.setDeleted(courseId, false), restored -> {
+                if (restored) {
                     JOptionPane.showMessageDialog(this, "Course successfully restored.", "Success", JOptionPane.INFORMATION_MESSAGE);
                     refresh();
                  
@@ -397,10 +375,10 @@ public class ManageCoursesPage extends JPanel {
                 } else {
                     JOptionPane.showMessageDialog(this, "Course ID not found.", "Error", JOptionPane.ERROR_MESSAGE);
                 }
-            } catch (SQLException ex) {
+            }, ex -> {
                 JOptionPane.showMessageDialog(this, "Error restoring course: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
                 ex.printStackTrace();
-            }
+            });
         }
     }
 
@@ -410,63 +388,45 @@ public class ManageCoursesPage extends JPanel {
                 "Confirm Permanent Deletion", JOptionPane.YES_NO_OPTION, JOptionPane.ERROR_MESSAGE);
         
         if (confirm == JOptionPane.YES_OPTION) {
-            Connection conn = null;
-            try {
-                conn = DBConnection.getConnection();
-                conn.setAutoCommit(false); 
-
-            
-                try (PreparedStatement pstDeleteResults = conn.prepareStatement("DELETE FROM course_results WHERE course_id = ?")) {
-                    pstDeleteResults.setString(1, courseId);
-                    pstDeleteResults.executeUpdate();
+            PurgeProgressDialog.run(this, List.of(courseId), report -> {
+                if (report != null && report.coursesPurged() > 0) {
+                    JOptionPane.showMessageDialog(this, "Course permanently deleted.", "Success", JOptionPane.INFORMATION_MESSAGE);
+                } else if (report != null && !report.notFound().isEmpty()) {
+                    JOptionPane.showMessageDialog(this, "Course ID not found for permanent deletion.", "Error", JOptionPane.ERROR_MESSAGE);
                 }
+                refresh();
+            });
+        }
+    }
 
-          
-                try (PreparedStatement pstDeleteAttendance = conn.prepareStatement("DELETE FROM attendance WHERE course_id = ?")) {
-                    pstDeleteAttendance.setString(1, courseId);
-                    pstDeleteAttendance.executeUpdate();
-                }
+    private void purgeArchived() {
+        UnitOfWork.submit(this, "ManageCoursesPage.purgeArchived", courses::findDeletedIds, this::confirmPurge,
+                ex -> JOptionPane.showMessageDialog(this, "Error loading archived courses: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE));
+    }
 
-                
-                try (PreparedStatement pstDeleteRegs = conn.prepareStatement("DELETE FROM course_registrations WHERE course_id = ?")) {
-                    pstDeleteRegs.setString(1, courseId);
-                    pstDeleteRegs.executeUpdate();
-                }
-                
-                
-                try (PreparedStatement pstDeleteCourse = conn.prepareStatement("DELETE FROM courses WHERE course_id = ?")) {
-                    pstDeleteCourse.setString(1, courseId);
-                    int rowsDeleted = pstDeleteCourse.executeUpdate();
-
-                    if (rowsDeleted > 0) {
-                        conn.commit(); 
-                        JOptionPane.showMessageDialog(this, "Course permanently deleted.", "Success", JOptionPane.INFORMATION_MESSAGE);
-                        refresh(); 
-                    } else {
-                        conn.rollback();
-                        JOptionPane.showMessageDialog(this, "Course ID not found for permanent deletion.", "Error", JOptionPane.ERROR_MESSAGE);
-                    }
-                }
-            } catch (SQLException ex) {
-                if (conn != null) {
-                    try {
-                        conn.rollback();
-                    } catch (SQLException rbEx) {
-                        
-                    }
-                }
-                JOptionPane.showMessageDialog(this, "Database error during permanent deletion: " + ex.getMessage() + ". Transaction aborted.", "Database Error", JOptionPane.ERROR_MESSAGE);
-                ex.printStackTrace();
-            } finally {
-                if (conn != null) {
-                    try {
-                        conn.setAutoCommit(true);
-                        conn.close();
-                    } catch (SQLException closeEx) {
-                       
+    private void confirmPurge(List<String> courseIds) {
+        if (courseIds.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "There are no archived courses to purge.", "Nothing to Purge", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+
+        int confirm = JOptionPane.showConfirmDialog(this,
+                "WARNING: This will PERMANENTLY delete all " + courseIds.size() + " archived course(s) and ALL related student data (results, attendance, and registrations). This action cannot be undone.",
+                "Confirm Purge", JOptionPane.YES_NO_OPTION, JOptionPane.ERROR_MESSAGE);
+
+        if (confirm == JOptionPane.YES_OPTION) {
+            PurgeProgressDialog.run(this, courseIds, report -> {
+                if (report != null) {
+                    String message = report.coursesPurged() + " of " + courseIds.size() + " archived course(s) permanently deleted ("
+                            + report.rowsDeleted() + " rows).";
+                    if (report.interrupted()) {
+                        message += "\nThe purge was stopped; run it again to delete the rest.";
                     }
+                    JOptionPane.showMessageDialog(this, message, "Purge Complete", JOptionPane.INFORMATION_MESSAGE);
                 }
-            }
+                courseIds.forEach(main::discardCoursePages);
+                refresh();
+            });
         }
     }
     
@@ -478,17 +438,10 @@ public class ManageCoursesPage extends JPanel {
     }
     
 
+    /** Reloads the selected tab with the current search term; the other tabs reload when next opened. */
     public void refresh() {
-        int index = tabbedPane.getSelectedIndex();
-        String searchTerm = txtSearch.getText();
-        
-        String category;
-        if (index == 0) category = "upcoming";
-        else if (index == 1) category = "completed";
-        else if (index == 2) category = "deleted";
-        else return;
-        
-        loadCourses(category, searchTerm);
+        searchTerm = txtSearch.getText();
+        pagedTabs.refresh();
     }
 
     private void styleButton(JButton b, Color bg, Color hover) {
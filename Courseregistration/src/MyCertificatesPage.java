@@ -4,6 +4,7 @@ import java.awt.event.*;
 import java.sql.*;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.List;
 import java.io.File;
 import java.io.IOException;
 import java.util.regex.Pattern; 
@@ -27,6 +28,8 @@ public class MyCertificatesPage extends JPanel {
     private final Color success = new Color(39, 174, 96);
     private final Color successDark = new Color(27, 128, 77);
 
+    private final ResultRepository results = new ResultRepository();
+
     public MyCertificatesPage(MainFrame main, String admissionNo) {
         this.main = main;
         this.admissionNo = admissionNo;
@@ -73,38 +76,23 @@ public class MyCertificatesPage extends JPanel {
 
   
     public void loadCertificates() {
+        UnitOfWork.load(this, "MyCertificatesPage.loadCertificates", () -> results.findCertificates(admissionNo),
+                this::showCertificates,
+                ex -> JOptionPane.showMessageDialog(this, "Error loading certificates: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE));
+    }
+
+    private void showCertificates(List<ResultRepository.Certificate> certificates) {
         listPanel.removeAll();
         boolean found = false;
 
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement pst = conn.prepareStatement(
-                   
-                     "SELECT c.course_id, c.course_name, r.completion_date " +
-                             "FROM courses c " +
-                             "JOIN course_results r ON c.course_id = r.course_id " +
-                             "WHERE r.admission_no = ? AND c.is_deleted = FALSE " +
-                             "AND r.status IN ('Passed', 'Completed') " +
-                             "ORDER BY r.completion_date DESC")) {
-
-            pst.setString(1, admissionNo);
-            ResultSet rs = pst.executeQuery();
-            SimpleDateFormat dateFormat = new SimpleDateFormat("MMMM dd, yyyy");
-
-            while (rs.next()) {
-                found = true;
-                String courseId = rs.getString("course_id");
-                String courseName = rs.getString("course_name");
-                
-               
-                Date completionDate = rs.getDate("completion_date"); 
-
-                JPanel certificateCard = createCertificateCard(courseId, courseName, dateFormat.format(completionDate));
-                listPanel.add(certificateCard);
-                listPanel.add(Box.createVerticalStrut(10));
-            }
+        SimpleDateFormat dateFormat = new SimpleDateFormat("MMMM dd, yyyy");
 
-        } catch (SQLException ex) {
-            JOptionPane.showMessageDialog(this, "Error loading certificates: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
+        for (ResultRepository.Certificate certificate : certificates) {
+            found = true;
+            JPanel certificateCard = createCertificateCard(certificate.courseId(), certificate.courseName(),
+                    dateFormat.format(certificate.completionDate()));
+            listPanel.add(certificateCard);
+            listPanel.add(Box.createVerticalStrut(10));
         }
 
         if (!found) {
@@ -161,35 +149,21 @@ public class MyCertificatesPage extends JPanel {
 
    
     private void downloadCertificate(String courseId, String courseName) {
-        String studentFullName = "";
-        String completionDateStr = "";
-
-      
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement pst = conn.prepareStatement(
-                 "SELECT s.full_name, r.completion_date " +
-                 "FROM students s " +
-                 "JOIN course_results r ON s.admission_no = r.admission_no " +
-                 "WHERE s.admission_no = ? AND r.course_id = ? AND r.status IN ('Passed', 'Completed')")) {
-
-            pst.setString(1, admissionNo);
-            pst.setString(2, courseId);
-            ResultSet rs = pst.executeQuery();
-
-            if (rs.next()) {
-                studentFullName = rs.getString("full_name");
-                Date completionDate = rs.getDate("completion_date");
-                completionDateStr = new SimpleDateFormat("MMMM dd, yyyy").format(completionDate);
-            } else {
-                JOptionPane.showMessageDialog(this, "Course status not found in results table.", "Error", JOptionPane.ERROR_MESSAGE);
-                return;
-            }
-
-        } catch (SQLException ex) {
-            JOptionPane.showMessageDialog(this, "Database error during certificate generation: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-            return;
-        }
+        UnitOfWork.submit(this, "MyCertificatesPage.downloadCertificate",
+                () -> results.findCertificateDetails(admissionNo, courseId),
+                found -> {
+                    ResultRepository.CertificateDetails details = found.orElse(null);
+                    if (details != null) {
+                        writeCertificate(courseId, courseName, details.fullName(),
+                                new SimpleDateFormat("MMMM dd, yyyy").format(details.completionDate()));
+                    } else {
+                        JOptionPane.showMessageDialog(this, "Course status not found in results table.", "Error", JOptionPane.ERROR_MESSAGE);
+                    }
+                },
+                ex -> JOptionPane.showMessageDialog(this, "Database error during certificate generation: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE));
+    }
 
+    private void writeCertificate(String courseId, String courseName, String studentFullName, String completionDateStr) {
         String dirPath = "certificates" + File.separator + 
                          "Certificate_" + courseId + File.separator + 
                          admissionNo + File.separator + 
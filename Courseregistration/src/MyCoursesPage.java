@@ -4,7 +4,7 @@ import java.awt.event.*;
 import java.sql.*;
 import java.text.SimpleDateFormat;
 import java.util.Date;
-import java.util.Calendar;
+import java.util.List;
 import java.io.File;
 
 public class MyCoursesPage extends JPanel {
@@ -13,10 +13,15 @@ public class MyCoursesPage extends JPanel {
     
     private JPanel upcomingCoursesPanel;
     private JPanel completedCoursesPanel;
+    private ScrollPager<RegistrationRepository.RegisteredCourse> upcomingPager;
+    private ScrollPager<RegistrationRepository.RegisteredCourse> completedPager;
+    private PagedTabs pagedTabs;
     
     private Color primary = new Color(52, 152, 219);
     private Color danger = new Color(231, 76, 60);
-    private final long ONE_HOUR_MS = 60 * 60 * 1000;
+
+    private final RegistrationRepository registrations = new RegistrationRepository();
+
     public MyCoursesPage(MainFrame main, String studentAdmissionNo) {
         this.main = main;
         this.studentAdmissionNo = studentAdmissionNo;
@@ -52,6 +57,21 @@ public class MyCoursesPage extends JPanel {
         completedScroll.getVerticalScrollBar().setUnitIncrement(16);
         tabs.addTab(" Completed Courses", completedScroll);
 
+        upcomingPager = new ScrollPager<>(upcomingCoursesPanel, upcomingScroll, "MyCoursesPage.loadUpcoming",
+                after -> registrations.findCoursesForStudent(studentAdmissionNo, true, after),
+                (rows, first, more) -> showCourses(upcomingCoursesPanel, rows, first, true,
+                        "You have no upcoming registered courses."),
+                this::showLoadError);
+        completedPager = new ScrollPager<>(completedCoursesPanel, completedScroll, "MyCoursesPage.loadCompleted",
+                after -> registrations.findCoursesForStudent(studentAdmissionNo, false, after),
+                (rows, first, more) -> showCourses(completedCoursesPanel, rows, first, false,
+                        "You have not completed any registered courses yet."),
+                this::showLoadError);
+
+        pagedTabs = new PagedTabs(tabs);
+        pagedTabs.add(upcomingPager, true);
+        pagedTabs.add(completedPager, false);
+
         add(tabs, BorderLayout.CENTER);
 
        
@@ -73,98 +93,36 @@ public class MyCoursesPage extends JPanel {
 
    
     public void loadCourses() {
-        upcomingCoursesPanel.removeAll();
-        completedCoursesPanel.removeAll();
-
-        
-        String sql = "SELECT c.course_id, c.course_name, c.course_date, c.course_time, c.mode, c.poster " +
-                     "FROM courses c " +
-                     "JOIN course_registrations cr ON c.course_id = cr.course_id " +
-                     "WHERE cr.student_admission_no = ? AND cr.is_cancelled = FALSE AND c.is_deleted = FALSE " + 
-                     "ORDER BY c.course_date ASC";
-
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement pst = conn.prepareStatement(sql)) {
-
-            pst.setString(1, studentAdmissionNo);
-            ResultSet rs = pst.executeQuery();
-            
-            Date currentTime = new Date();
-            
-            boolean foundUpcoming = false;
-            boolean foundCompleted = false;
+        pagedTabs.refresh();
+    }
 
-            while (rs.next()) {
-                String courseId = rs.getString("course_id");
-                String courseName = rs.getString("course_name");
-                Date courseDate = rs.getDate("course_date");
-                Time courseTime = rs.getTime("course_time");
-                String mode = rs.getString("mode");
-                String poster = rs.getString("poster");
-                
-              
-                Calendar courseCal = Calendar.getInstance();
-                courseCal.setTime(courseDate);
-                courseCal.set(Calendar.HOUR_OF_DAY, courseTime.getHours());
-                courseCal.set(Calendar.MINUTE, courseTime.getMinutes());
-                
-               
-                long courseEndTimestamp = courseCal.getTimeInMillis() + ONE_HOUR_MS;
-                
-                boolean isUpcoming = currentTime.getTime() < courseEndTimestamp;
+    private void showLoadError(Exception ex) {
+        ex.printStackTrace();
+        JOptionPane.showMessageDialog(this, "Error loading courses: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
+    }
 
-                
-                String finalStatus = "N/A";
-                if (!isUpcoming) {
-                   
-                    finalStatus = getCourseAttendanceStatus(conn, courseId, studentAdmissionNo);
-                }
+    private void showCourses(JPanel panel, List<RegistrationRepository.RegisteredCourse> rows, boolean first,
+                             boolean upcoming, String emptyMessage) {
+        if (first) {
+            panel.removeAll();
+        }
 
-              
-                JPanel courseCard = createCourseCard(courseId, courseName, courseDate, courseTime, mode, poster, isUpcoming, finalStatus);
-                
-                if (isUpcoming) {
-                    upcomingCoursesPanel.add(courseCard);
-                    upcomingCoursesPanel.add(Box.createVerticalStrut(10));
-                    foundUpcoming = true;
-                } else {
-                    completedCoursesPanel.add(courseCard);
-                    completedCoursesPanel.add(Box.createVerticalStrut(10));
-                    foundCompleted = true;
-                }
-            }
+        for (RegistrationRepository.RegisteredCourse registered : rows) {
+            CourseRepository.CourseSummary course = registered.course();
             
-            if (!foundUpcoming) addNoCourseMessage(upcomingCoursesPanel, "You have no upcoming registered courses.");
-            if (!foundCompleted) addNoCourseMessage(completedCoursesPanel, "You have not completed any registered courses yet.");
-
-
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            JOptionPane.showMessageDialog(this, "Error loading courses: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
+            String finalStatus = upcoming ? "N/A" : registered.presentDays() > 0 ? "COMPLETED" : "ABSENT";
+            JPanel courseCard = createCourseCard(course.courseId(), course.courseName(), course.courseDate(), course.courseTime(),
+                    course.mode(), course.poster(), course.hasPosterImage(), upcoming, finalStatus);
+            panel.add(courseCard);
+            panel.add(Box.createVerticalStrut(10));
         }
         
-        upcomingCoursesPanel.revalidate();
-        completedCoursesPanel.revalidate();
-        upcomingCoursesPanel.repaint();
-        completedCoursesPanel.repaint();
-    }
-    
+        if (first && rows.isEmpty()) addNoCourseMessage(panel, emptyMessage);
 
-    private String getCourseAttendanceStatus(Connection conn, String courseId, String admissionNo) throws SQLException {
-      
-        String sql = "SELECT COUNT(*) FROM attendance WHERE course_id = ? AND admission_no = ? AND status = 'Present'";
-        try (PreparedStatement pst = conn.prepareStatement(sql)) {
-            pst.setString(1, courseId);
-            pst.setString(2, admissionNo);
-            ResultSet rs = pst.executeQuery();
-            
-            if (rs.next() && rs.getInt(1) > 0) {
-                return "COMPLETED";
-            }
-        }
-     
-        return "ABSENT";
+        panel.revalidate();
+        panel.repaint();
     }
+    
 
     private void addNoCourseMessage(JPanel panel, String message) {
         JLabel lblMessage = new JLabel(message, SwingConstants.CENTER);
@@ -175,7 +133,7 @@ public class MyCoursesPage extends JPanel {
     }
 
    
-    private JPanel createCourseCard(String courseId, String courseName, Date courseDate, Time courseTime, String mode, String poster, boolean isUpcoming, String finalStatus) {
+    private JPanel createCourseCard(String courseId, String courseName, Date courseDate, Time courseTime, String mode, String poster, boolean hasPosterImage, boolean isUpcoming, String finalStatus) {
         JPanel card = new JPanel(new BorderLayout(15, 0));
         card.setMaximumSize(new Dimension(750, 100));
         card.setBorder(BorderFactory.createLineBorder(Color.LIGHT_GRAY, 1));
@@ -193,7 +151,13 @@ public class MyCoursesPage extends JPanel {
         lblPoster.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
         
      
-        if (poster != null && !poster.trim().isEmpty() && !poster.equals("No file chosen")) {
+        if (hasPosterImage) {
+        
+     
+            PosterCache.loadInto(lblPoster, courseId, 70, 70);
+        
+     
+        } else if (poster != null && !poster.trim().isEmpty() && !poster.equals("No file chosen")) {
             File posterFile = new File("posters/" + poster);
             if (posterFile.exists()) {
                 ImageIcon icon = new ImageIcon(posterFile.getAbsolutePath());
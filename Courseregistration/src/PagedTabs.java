@@ -0,0 +1,52 @@
+import javax.swing.JTabbedPane;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The ScrollPagers behind the tabs of one JTabbedPane, in tab order. A tab is
+ * fetched when it is first selected and then kept until it is invalidated or
+ * older than db.tabMaxAgeSeconds, so switching back and forth does not re-query.
+ *
+ * Tabs added as eager are fetched on every refresh whether selected or not. Each
+ * pager is its own UnitOfWork, so they run in parallel on separate pooled
+ * connections. EDT only.
+ */
+public final class PagedTabs {
+
+    static final long MAX_AGE_MILLIS = DBConfig.getLong("db.tabMaxAgeSeconds", 300) * 1000L;
+
+    private final JTabbedPane tabs;
+    private final List<ScrollPager<?>> pagers = new ArrayList<>();
+    private final List<Boolean> eager = new ArrayList<>();
+
+    public PagedTabs(JTabbedPane tabs) {
+        this.tabs = tabs;
+        tabs.addChangeListener(e -> showSelected());
+    }
+
+    /** Registers the pager of the next tab. */
+    public void add(ScrollPager<?> pager, boolean loadEagerly) {
+        pagers.add(pager);
+        eager.add(loadEagerly);
+    }
+
+    /** The data changed: reloads the eager and the selected tabs, and the others when next selected. */
+    public void refresh() {
+        int selected = tabs.getSelectedIndex();
+        for (int i = 0; i < pagers.size(); i++) {
+            if (i == selected || eager.get(i)) {
+                pagers.get(i).reset();
+            } else {
+                pagers.get(i).invalidate();
+            }
+        }
+    }
+
+    /** Loads the selected tab if it has never been loaded or has gone stale. */
+    public void showSelected() {
+        int selected = tabs.getSelectedIndex();
+        if (selected >= 0 && selected < pagers.size()) {
+            pagers.get(selected).ensureFresh(MAX_AGE_MILLIS);
+        }
+    }
+}
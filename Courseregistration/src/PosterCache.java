@@ -0,0 +1,128 @@
+import javax.swing.ImageIcon;
+import javax.swing.JLabel;
+import java.awt.Image;
+import java.awt.event.HierarchyEvent;
+import java.awt.event.HierarchyListener;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Uploaded poster images, fetched one course at a time and only when a screen
+ * actually shows them. List and detail queries never select poster_image; they
+ * only say whether a course has one. Entries are kept in LRU order up to
+ * db.posterCache.maxBytes in total.
+ */
+public final class PosterCache {
+
+    private static final long MAX_BYTES = DBConfig.getLong("db.posterCache.maxBytes", 16L * 1024 * 1024);
+
+    // Remembers "no image" as well, so a course without one is not asked for again.
+    private static final byte[] NONE = new byte[0];
+
+    private static final Map<String, byte[]> CACHE = new LinkedHashMap<>(64, 0.75f, true);
+    private static long cachedBytes;
+
+    private static final CourseRepository courses = new CourseRepository();
+
+    // The load a label still waits for; set until it has shown an image or "No Poster".
+    private static final String PENDING_LOAD = "PosterCache.pendingLoad";
+
+    // A load cancelled because its page was hidden starts again when the label is shown.
+    private static final HierarchyListener RESUME = e -> {
+        if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0 && e.getComponent().isShowing()
+                && e.getComponent() instanceof JLabel label
+                && label.getClientProperty(PENDING_LOAD) instanceof Runnable load) {
+            load.run();
+        }
+    };
+
+    private PosterCache() {
+    }
+
+    /** The course's uploaded image, from the cache or the database. Call off the EDT. */
+    public static Optional<byte[]> get(String courseId) throws SQLException {
+        byte[] bytes;
+        synchronized (CACHE) {
+            bytes = CACHE.get(courseId);
+        }
+        if (bytes == null) {
+            bytes = courses.findPosterBytes(courseId).orElse(NONE);
+            put(courseId, bytes);
+        }
+        return bytes.length == 0 ? Optional.empty() : Optional.of(bytes);
+    }
+
+    /** Forgets a course's image after it was replaced or the course was deleted. */
+    public static void invalidate(String courseId) {
+        synchronized (CACHE) {
+            byte[] removed = CACHE.remove(courseId);
+            if (removed != null) {
+                cachedBytes -= removed.length;
+            }
+        }
+    }
+
+    public static void clear() {
+        synchronized (CACHE) {
+            CACHE.clear();
+            cachedBytes = 0;
+        }
+    }
+
+    /**
+     * Loads the image in the background and shows it on the label, scaled to fit
+     * within maxWidth x maxHeight. The load is a UnitOfWork owned by the label, so it
+     * is cancelled with its page and superseded by a newer load into the same label.
+     * Must be called on the EDT.
+     */
+    public static void loadInto(JLabel label, String courseId, int maxWidth, int maxHeight) {
+        label.setText("Loading...");
+        Runnable load = () -> UnitOfWork.load(label, "PosterCache.loadInto", () -> get(courseId), bytes -> {
+            label.putClientProperty(PENDING_LOAD, null);
+            if (bytes.isPresent()) {
+                label.setText("");
+                label.setIcon(scaleToFit(new ImageIcon(bytes.get()), maxWidth, maxHeight));
+                label.revalidate();
+            } else {
+                label.setText("No Poster");
+            }
+        }, ex -> {
+            label.putClientProperty(PENDING_LOAD, null);
+            label.setText("No Poster");
+        });
+        label.putClientProperty(PENDING_LOAD, load);
+        if (!Arrays.asList(label.getHierarchyListeners()).contains(RESUME)) {
+            label.addHierarchyListener(RESUME);
+        }
+        load.run();
+    }
+
+    static ImageIcon scaleToFit(ImageIcon icon, int maxWidth, int maxHeight) {
+        int width = icon.getIconWidth();
+        int height = icon.getIconHeight();
+        if (width <= 0 || height <= 0 || (width <= maxWidth && height <= maxHeight)) {
+            return icon;
+        }
+        double ratio = Math.min((double) maxWidth / width, (double) maxHeight / height);
+        return new ImageIcon(icon.getImage().getScaledInstance((int) (width * ratio), (int) (height * ratio), Image.SCALE_SMOOTH));
+    }
+
+    private static void put(String courseId, byte[] bytes) {
+        if (bytes.length > MAX_BYTES) {
+            return;
+        }
+        synchronized (CACHE) {
+            byte[] previous = CACHE.put(courseId, bytes);
+            cachedBytes += bytes.length - (previous != null ? previous.length : 0);
+            Iterator<byte[]> eldest = CACHE.values().iterator();
+            while (cachedBytes > MAX_BYTES && eldest.hasNext()) {
+                cachedBytes -= eldest.next().length;
+                eldest.remove();
+            }
+        }
+    }
+}
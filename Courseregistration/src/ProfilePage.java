@@ -10,6 +10,8 @@ public class ProfilePage extends JPanel {
     private JLabel lblAdmissionNo, lblRegNo, lblFullName, lblGender, lblDob, lblClassNo;
     private JLabel lblDept, lblSemester, lblBatch, lblPhone, lblEmail;
 
+    private final StudentRepository students = new StudentRepository();
+
     public ProfilePage(MainFrame main, String admissionNo) {
         this.main = main;
         this.admissionNo = admissionNo;
@@ -81,13 +83,13 @@ public class ProfilePage extends JPanel {
        
         btnEdit.addActionListener(e -> {
             EditProfilePage editPage = new EditProfilePage(main, admissionNo);
-            main.addPage("editprofile", editPage);
+            main.addStudentPage("editprofile", editPage);
             main.showPage("editprofile");
         });
 
         btnBack.addActionListener(e -> {
             Dashboard dashboard = new Dashboard(main, admissionNo, lblFullName.getText());
-            main.addPage("dashboard", dashboard);
+            main.addStudentPage("dashboard", dashboard);
             main.showPage("dashboard");
         });
 
@@ -111,37 +113,28 @@ public class ProfilePage extends JPanel {
     }
 
     private void loadStudentProfile() {
-        try (Connection conn = DBConnection.getConnection()) {
-            String sql = """
-                SELECT admission_no, reg_no, full_name, gender, dob, class_no,
-                       dept, semester, batch, phone, email
-                FROM students
-                WHERE admission_no = ?
-            """;
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setString(1, admissionNo);
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                lblAdmissionNo.setText(rs.getString("admission_no"));
-                lblRegNo.setText(rs.getString("reg_no"));
-                lblFullName.setText(rs.getString("full_name"));
-                lblGender.setText(rs.getString("gender"));
-                lblDob.setText(rs.getString("dob"));
-                lblClassNo.setText(rs.getString("class_no"));
-                lblDept.setText(rs.getString("dept"));
-                lblSemester.setText(rs.getString("semester"));
-                lblBatch.setText(rs.getString("batch"));
-                lblPhone.setText(rs.getString("phone"));
-                lblEmail.setText(rs.getString("email"));
+        UnitOfWork.load(this, "ProfilePage.loadStudentProfile", () -> students.findProfile(admissionNo), found -> {
+            StudentRepository.Student s = found.orElse(null);
+
+            if (s != null) {
+                lblAdmissionNo.setText(s.admissionNo());
+                lblRegNo.setText(s.regNo());
+                lblFullName.setText(s.fullName());
+                lblGender.setText(s.gender());
+                lblDob.setText(s.dob() != null ? s.dob().toString() : null);
+                lblClassNo.setText(s.classNo());
+                lblDept.setText(s.dept());
+                lblSemester.setText(s.semester());
+                lblBatch.setText(s.batch());
+                lblPhone.setText(s.phone());
+                lblEmail.setText(s.email());
             } else {
                 JOptionPane.showMessageDialog(this, "No profile found for this admission number!");
             }
-
-        } catch (Exception e) {
+        }, e -> {
             e.printStackTrace();
             JOptionPane.showMessageDialog(this, "Error loading profile: " + e.getMessage());
-        }
+        });
     }
 
     private void styleButton(JButton b, Color primary, Color primaryDark) {
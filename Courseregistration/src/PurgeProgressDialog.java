@@ -0,0 +1,116 @@
+import javax.swing.*;
+import java.awt.*;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Runs a CoursePurger off the EDT behind a modal progress dialog. Cancel stops the
+ * purge between chunks; whatever was already deleted stays deleted and the report
+ * says the run was interrupted.
+ */
+public class PurgeProgressDialog extends JDialog {
+
+    private final JProgressBar progressBar = new JProgressBar();
+    private final JLabel lblDetail = new JLabel(" ");
+    private final JButton btnCancel = new JButton("Cancel");
+
+    private PurgeProgressDialog(Component parent, int courseCount) {
+        super(SwingUtilities.getWindowAncestor(parent), "Deleting Courses", ModalityType.APPLICATION_MODAL);
+        setDefaultCloseOperation(DO_NOTHING_ON_CLOSE);
+
+        JPanel content = new JPanel(new BorderLayout(10, 10));
+        content.setBorder(BorderFactory.createEmptyBorder(15, 20, 15, 20));
+        content.setBackground(Color.WHITE);
+
+        progressBar.setMinimum(0);
+        progressBar.setMaximum(courseCount);
+        progressBar.setStringPainted(true);
+        progressBar.setString("0 of " + courseCount + " courses");
+        lblDetail.setFont(new Font("Segoe UI", Font.PLAIN, 13));
+
+        JPanel footer = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        footer.setOpaque(false);
+        footer.add(btnCancel);
+
+        content.add(progressBar, BorderLayout.NORTH);
+        content.add(lblDetail, BorderLayout.CENTER);
+        content.add(footer, BorderLayout.SOUTH);
+        setContentPane(content);
+        setSize(420, 150);
+        setLocationRelativeTo(parent);
+    }
+
+    /**
+     * Purges the given courses and hands the report to onDone on the EDT. Failures are
+     * shown to the user and onDone gets null, so the caller can still refresh its lists.
+     */
+    public static void run(Component parent, List<String> courseIds, Consumer<CoursePurger.Report> onDone) {
+        PurgeProgressDialog dialog = new PurgeProgressDialog(parent, courseIds.size());
+        CoursePurger purger = new CoursePurger();
+        Thread[] purgeThread = new Thread[1];
+
+        SwingWorker<CoursePurger.Report, CoursePurger.Progress> worker = new SwingWorker<>() {
+            @Override
+            protected CoursePurger.Report doInBackground() throws Exception {
+                synchronized (purgeThread) {
+                    purgeThread[0] = Thread.currentThread();
+                }
+                QueryContext.Scope scope = QueryContext.enter("CoursePurger.purge");
+                try {
+                    return purger.purge(courseIds, this::publish);
+                } finally {
+                    scope.close();
+                    synchronized (purgeThread) {
+                        purgeThread[0] = null;
+                        Thread.interrupted();
+                    }
+                }
+            }
+
+            @Override
+            protected void process(List<CoursePurger.Progress> chunks) {
+                CoursePurger.Progress latest = chunks.get(chunks.size() - 1);
+                boolean courseDone = latest.table() == null;
+                int finished = latest.courseIndex() - (courseDone ? 0 : 1);
+                dialog.progressBar.setValue(finished);
+                dialog.progressBar.setString(finished + " of " + latest.courseCount() + " courses");
+                dialog.lblDetail.setText(courseDone
+                        ? "Deleted course " + latest.courseId()
+                        : latest.courseId() + ": " + latest.rowsDeleted() + " row(s) removed from " + latest.table());
+            }
+
+            @Override
+            protected void done() {
+                dialog.dispose();
+                CoursePurger.Report report;
+                try {
+                    report = get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (ExecutionException e) {
+                    JOptionPane.showMessageDialog(parent, "Database error during permanent deletion: " + e.getCause().getMessage()
+                            + "\nCourses finished before the error stay deleted; run the deletion again to finish the rest.",
+                            "Database Error", JOptionPane.ERROR_MESSAGE);
+                    report = null;
+                }
+                onDone.accept(report);
+            }
+        };
+
+        dialog.btnCancel.addActionListener(e -> {
+            dialog.btnCancel.setEnabled(false);
+            dialog.lblDetail.setText("Stopping after the current chunk...");
+            // Interrupt rather than cancel the worker, so done() still receives the partial report.
+            synchronized (purgeThread) {
+                if (purgeThread[0] != null) {
+                    purgeThread[0].interrupt();
+                }
+            }
+        });
+
+        worker.execute();
+        dialog.setVisible(true);
+    }
+}
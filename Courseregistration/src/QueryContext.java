@@ -0,0 +1,34 @@
+/**
+ * Names the page or action that is issuing queries on the current thread, so
+ * slow-query log entries can say which screen was waiting. When nothing is set,
+ * QueryMetrics falls back to the first application frame on the stack.
+ */
+public final class QueryContext {
+
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private static final ThreadLocal<String> ACTION = new ThreadLocal<>();
+
+    private QueryContext() {
+    }
+
+    /** Sets the action for the current thread until the returned scope is closed. */
+    public static Scope enter(String action) {
+        String previous = ACTION.get();
+        ACTION.set(action);
+        return () -> {
+            if (previous == null) {
+                ACTION.remove();
+            } else {
+                ACTION.set(previous);
+            }
+        };
+    }
+
+    public static String current() {
+        return ACTION.get();
+    }
+}
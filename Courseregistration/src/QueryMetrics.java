@@ -0,0 +1,390 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Per-statement timing for every connection DBConnection hands out.
+ *
+ * Statements are grouped by normalized SQL. Each group keeps a latency histogram,
+ * the rows returned or affected and batch sizes. Queries are timed from execute
+ * until their ResultSet is closed, so streamed fetches are included. Anything over
+ * db.slowQueryMillis is appended to db.slowQueryLog along with the page or action
+ * that ran it.
+ */
+public final class QueryMetrics {
+
+    public record Summary(String sql, long count, long errors, long p50Micros, long p95Micros, long p99Micros,
+                          long maxMicros, long meanMicros, double avgRows, long batches, double avgBatchSize) {
+        @Override
+        public String toString() {
+            return String.format("n=%d err=%d p50=%.1fms p95=%.1fms p99=%.1fms max=%.1fms rows=%.1f batches=%d batchSize=%.1f  %s",
+                    count, errors, p50Micros / 1000.0, p95Micros / 1000.0, p99Micros / 1000.0, maxMicros / 1000.0,
+                    avgRows, batches, avgBatchSize, sql);
+        }
+    }
+
+    private static final class StatementStats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder rows = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder batches = new LongAdder();
+        final LongAdder batchItems = new LongAdder();
+    }
+
+    private static final boolean ENABLED = DBConfig.getBoolean("db.metrics.enabled", true);
+    private static final long SLOW_QUERY_MICROS = TimeUnit.MILLISECONDS.toMicros(DBConfig.getLong("db.slowQueryMillis", 200));
+    private static final Path SLOW_QUERY_LOG = Paths.get(DBConfig.get("db.slowQueryLog", "slow-query.log"));
+    private static final int MAX_STATEMENTS = 1000;
+
+    private static final Map<String, StatementStats> STATS = new ConcurrentHashMap<>();
+    private static final Map<String, String> NORMALIZED = new ConcurrentHashMap<>();
+    private static final AtomicLong SLOW_COUNT = new AtomicLong();
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^'\\\\]|\\\\.|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?(?![\\w.])");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bIN\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static BufferedWriter slowLog;
+
+    private QueryMetrics() {
+    }
+
+    /** Wraps a connection so every statement created from it is measured. */
+    public static Connection instrument(Connection conn) {
+        if (!ENABLED) {
+            return conn;
+        }
+        return (Connection) Proxy.newProxyInstance(QueryMetrics.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(conn));
+    }
+
+    public static List<Summary> snapshot() {
+        List<Summary> out = new ArrayList<>();
+        STATS.forEach((sql, s) -> {
+            long n = s.latency.count();
+            long b = s.batches.sum();
+            out.add(new Summary(sql, n, s.errors.sum(),
+                    s.latency.percentileMicros(50), s.latency.percentileMicros(95), s.latency.percentileMicros(99),
+                    s.latency.maxMicros(), s.latency.meanMicros(),
+                    n == 0 ? 0 : (double) s.rows.sum() / n, b, b == 0 ? 0 : (double) s.batchItems.sum() / b));
+        });
+        out.sort(Comparator.comparingLong((Summary s) -> s.p95Micros() * s.count()).reversed());
+        return out;
+    }
+
+    /** One line per statement, most expensive (p95 x count) first. */
+    public static String report() {
+        StringBuilder sb = new StringBuilder("Query metrics (" + SLOW_COUNT.get() + " slow):");
+        for (Summary s : snapshot()) {
+            sb.append(System.lineSeparator()).append("  ").append(s);
+        }
+        return sb.toString();
+    }
+
+    public static void reset() {
+        STATS.clear();
+        SLOW_COUNT.set(0);
+    }
+
+    static String normalize(String sql) {
+        if (sql == null) {
+            return "<unknown>";
+        }
+        String cached = NORMALIZED.get(sql);
+        if (cached != null) {
+            return cached;
+        }
+        String n = STRING_LITERAL.matcher(sql).replaceAll("?");
+        n = NUMBER_LITERAL.matcher(n).replaceAll("?");
+        n = IN_LIST.matcher(n).replaceAll("IN (?)");
+        n = WHITESPACE.matcher(n).replaceAll(" ").trim();
+        if (NORMALIZED.size() < MAX_STATEMENTS) {
+            NORMALIZED.put(sql, n);
+        }
+        return n;
+    }
+
+    private static void record(String sql, long startNanos, long rows, int batchSize, boolean failed) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+        String key = normalize(sql);
+        StatementStats s = STATS.get(key);
+        if (s == null) {
+            s = STATS.size() < MAX_STATEMENTS ? STATS.computeIfAbsent(key, k -> new StatementStats())
+                    : STATS.computeIfAbsent("<other>", k -> new StatementStats());
+        }
+        s.latency.record(micros);
+        if (rows > 0) {
+            s.rows.add(rows);
+        }
+        if (batchSize > 0) {
+            s.batches.increment();
+            s.batchItems.add(batchSize);
+        }
+        if (failed) {
+            s.errors.increment();
+        }
+        if (micros >= SLOW_QUERY_MICROS) {
+            logSlow(key, micros, rows, batchSize, failed);
+        }
+    }
+
+    private static void logSlow(String sql, long micros, long rows, int batchSize, boolean failed) {
+        SLOW_COUNT.incrementAndGet();
+        String line = String.format("%s %8.1fms rows=%d%s%s [%s] %s", LocalDateTime.now(), micros / 1000.0, rows,
+                batchSize > 0 ? " batch=" + batchSize : "", failed ? " FAILED" : "", caller(), sql);
+        synchronized (QueryMetrics.class) {
+            try {
+                if (slowLog == null) {
+                    slowLog = Files.newBufferedWriter(SLOW_QUERY_LOG, StandardCharsets.UTF_8,
+                            StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                }
+                slowLog.write(line);
+                slowLog.newLine();
+                slowLog.flush();
+            } catch (IOException e) {
+                System.err.println("Slow query: " + line);
+            }
+        }
+    }
+
+    /** The explicit QueryContext, otherwise the first frame above the data access layer. */
+    private static String caller() {
+        String action = QueryContext.current();
+        if (action != null) {
+            return action;
+        }
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(f -> isApplicationFrame(f.getClassName()))
+                .findFirst()
+                .map(f -> simpleName(f.getClassName()) + "." + cleanMethod(f.getMethodName()))
+                .orElse(Thread.currentThread().getName()));
+    }
+
+    private static boolean isApplicationFrame(String className) {
+        return !(className.startsWith("java.") || className.startsWith("javax.") || className.startsWith("jdk.")
+                || className.startsWith("sun.") || className.startsWith("com.sun.") || className.startsWith("com.mysql.")
+                || className.startsWith("org.h2.") || className.contains("$Proxy")
+                || className.startsWith("QueryMetrics") || className.startsWith("ConnectionPool")
+                || className.startsWith("DBConnection") || className.endsWith("Repository")
+                || className.contains("Repository$"));
+    }
+
+    private static String simpleName(String className) {
+        int dollar = className.indexOf('$');
+        return dollar > 0 ? className.substring(0, dollar) : className;
+    }
+
+    /** lambda$loadCourses$3 -> loadCourses */
+    private static String cleanMethod(String method) {
+        if (method.startsWith("lambda$")) {
+            int end = method.indexOf('$', 7);
+            return end > 7 ? method.substring(7, end) : method;
+        }
+        return method;
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static final class ConnectionHandler implements InvocationHandler {
+        final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if ("unwrap".equals(name) && ((Class<?>) args[0]).isInstance(proxy)) {
+                return proxy;
+            }
+            Object result = QueryMetrics.invoke(target, method, args);
+            if (result instanceof Statement st) {
+                String sql = ("prepareStatement".equals(name) || "prepareCall".equals(name)) ? (String) args[0] : null;
+                Class<?> type = result instanceof CallableStatement ? CallableStatement.class
+                        : result instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+                return Proxy.newProxyInstance(QueryMetrics.class.getClassLoader(), new Class<?>[]{type},
+                        new StatementHandler(st, sql));
+            }
+            return result;
+        }
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+        final Statement target;
+        final String sql;
+        int batchSize;
+        ResultSetHandler openResult;
+
+        StatementHandler(Statement target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "executeQuery": {
+                    String text = args != null && args.length > 0 ? (String) args[0] : sql;
+                    finishOpenResult();
+                    long start = System.nanoTime();
+                    ResultSet rs;
+                    try {
+                        rs = (ResultSet) QueryMetrics.invoke(target, method, args);
+                    } catch (Throwable t) {
+                        record(text, start, 0, 0, true);
+                        throw t;
+                    }
+                    openResult = new ResultSetHandler(rs, text, start);
+                    return Proxy.newProxyInstance(QueryMetrics.class.getClassLoader(),
+                            new Class<?>[]{ResultSet.class}, openResult);
+                }
+                case "executeUpdate":
+                case "executeLargeUpdate":
+                case "execute": {
+                    String text = args != null && args.length > 0 ? (String) args[0] : sql;
+                    long start = System.nanoTime();
+                    Object result;
+                    try {
+                        result = QueryMetrics.invoke(target, method, args);
+                    } catch (Throwable t) {
+                        record(text, start, 0, 0, true);
+                        throw t;
+                    }
+                    long rows = result instanceof Number n ? n.longValue() : 0;
+                    record(text, start, rows, 0, false);
+                    return result;
+                }
+                case "addBatch":
+                    batchSize++;
+                    break;
+                case "clearBatch":
+                    batchSize = 0;
+                    break;
+                case "executeBatch":
+                case "executeLargeBatch": {
+                    int items = batchSize;
+                    batchSize = 0;
+                    long start = System.nanoTime();
+                    Object result;
+                    try {
+                        result = QueryMetrics.invoke(target, method, args);
+                    } catch (Throwable t) {
+                        record(sql, start, 0, items, true);
+                        throw t;
+                    }
+                    record(sql, start, affected(result), items, false);
+                    return result;
+                }
+                case "close":
+                    finishOpenResult();
+                    break;
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    break;
+                default:
+                    break;
+            }
+            return QueryMetrics.invoke(target, method, args);
+        }
+
+        private void finishOpenResult() {
+            if (openResult != null) {
+                openResult.finish();
+                openResult = null;
+            }
+        }
+
+        private static long affected(Object counts) {
+            long total = 0;
+            if (counts instanceof int[] ints) {
+                for (int c : ints) {
+                    total += Math.max(c, 0);
+                }
+            } else if (counts instanceof long[] longs) {
+                for (long c : longs) {
+                    total += Math.max(c, 0);
+                }
+            }
+            return total;
+        }
+    }
+
+    private static final class ResultSetHandler implements InvocationHandler {
+        final ResultSet target;
+        final String sql;
+        final long startNanos;
+        long rows;
+        boolean finished;
+
+        ResultSetHandler(ResultSet target, String sql, long startNanos) {
+            this.target = target;
+            this.sql = sql;
+            this.startNanos = startNanos;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "next": {
+                    Object more = QueryMetrics.invoke(target, method, args);
+                    if (Boolean.TRUE.equals(more)) {
+                        rows++;
+                    }
+                    return more;
+                }
+                case "close":
+                    finish();
+                    break;
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    break;
+                default:
+                    break;
+            }
+            return QueryMetrics.invoke(target, method, args);
+        }
+
+        void finish() {
+            if (!finished) {
+                finished = true;
+                record(sql, startNanos, rows, 0, false);
+            }
+        }
+    }
+}
@@ -0,0 +1,177 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransactionRollbackException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+
+public class RegistrationRepository extends Repository {
+
+    /** attendanceStatus is the mark recorded for the requested date, or null if there is none yet. */
+    public record RosterEntry(String admissionNo, String fullName, String classNo, String attendanceStatus) {
+    }
+
+    /** A course the student is registered for, with the number of days they were marked Present. */
+    public record RegisteredCourse(CourseRepository.CourseSummary course, int presentDays) {
+    }
+
+    /** What register() did; in every case the student ends up actively registered. */
+    public enum RegistrationState { REGISTERED, REACTIVATED, ALREADY_REGISTERED }
+
+    public record RegisteredStudent(String admissionNo, String fullName, String email, String phone,
+                                    String semester, String batch, String dept, String classNo) {
+    }
+
+    // Presence is aggregated once for the student (idx_attendance_student_status), not counted per course.
+    private static final String COURSES_FOR_STUDENT_SQL =
+            "SELECT c.course_id, c.course_name, c.course_date, c.course_time, c.ends_at, c.mode, c.poster, " +
+            CourseRepository.POSTER_FLAG + ", " +
+            "COALESCE(p.present_days, 0) AS present_days " +
+            "FROM students s " +
+            "JOIN course_registrations cr ON cr.student_id = s.id " +
+            "JOIN courses c ON c.id = cr.course_ref " +
+            "LEFT JOIN (SELECT course_ref, COUNT(*) AS present_days FROM attendance " +
+            "WHERE student_id = " + STUDENT_KEY + " AND status = 'Present' GROUP BY course_ref) p " +
+            "ON p.course_ref = c.id " +
+            "WHERE s.admission_no = ? AND cr.is_cancelled = FALSE AND c.is_deleted = FALSE AND ";
+
+    static final String UPCOMING_COURSES_FOR_STUDENT_SQL = COURSES_FOR_STUDENT_SQL + CourseRepository.UPCOMING_FILTER;
+
+    static final String PAST_COURSES_FOR_STUDENT_SQL = COURSES_FOR_STUDENT_SQL + CourseRepository.PAST_FILTER;
+
+    // Rides uk_attendance_course_student_date for the one mark per student on that date.
+    static final String ROSTER_SQL =
+            "SELECT s.admission_no, s.full_name, s.class_no, a.status FROM courses c " +
+            "JOIN course_registrations cr ON cr.course_ref = c.id " +
+            "JOIN students s ON s.id = cr.student_id " +
+            "LEFT JOIN attendance a ON a.course_ref = c.id AND a.student_id = s.id AND a.date_recorded = ? " +
+            "WHERE c.course_id = ? AND cr.is_cancelled = FALSE " +
+            "ORDER BY s.full_name";
+
+    static final String REGISTERED_STUDENTS_SQL =
+            "SELECT s.admission_no, s.full_name, s.email, s.phone, s.semester, s.batch, s.dept, s.class_no " +
+            "FROM courses c " +
+            "JOIN course_registrations cr ON cr.course_ref = c.id " +
+            "JOIN students s ON s.id = cr.student_id " +
+            "WHERE c.course_id = ? AND cr.is_cancelled = FALSE " +
+            "ORDER BY s.full_name";
+
+    /**
+     * One page of the student's active registrations that are still to finish (soonest
+     * first), or of those already over (most recent first). after is null for the first page.
+     */
+    public CourseRepository.Page<RegisteredCourse> findCoursesForStudent(String admissionNo, boolean upcoming,
+                                                                         CourseRepository.Cursor after) throws SQLException {
+        String sql = (upcoming ? UPCOMING_COURSES_FOR_STUDENT_SQL : PAST_COURSES_FOR_STUDENT_SQL)
+                + CourseRepository.seekAfter(after, upcoming) + CourseRepository.pageOrder(upcoming);
+        return CourseRepository.toPage(queryList(sql,
+                ps -> {
+                    ps.setString(1, admissionNo);
+                    ps.setString(2, admissionNo);
+                    CourseRepository.bindSeek(ps, 3, after);
+                },
+                rs -> new RegisteredCourse(
+                        new CourseRepository.CourseSummary(
+                                rs.getString("course_id"),
+                                rs.getString("course_name"),
+                                rs.getDate("course_date"),
+                                rs.getTime("course_time"),
+                                rs.getTimestamp("ends_at"),
+                                rs.getString("mode"),
+                                rs.getString("poster"),
+                                rs.getBoolean("has_poster_image")),
+                        rs.getInt("present_days"))), RegisteredCourse::course);
+    }
+
+    /*
+     * One statement against uk_registrations_student_course: inserts a new row or
+     * reactivates the cancelled one, so double clicks and two sessions racing cannot
+     * fail or duplicate. registration_date is assigned before is_cancelled because
+     * MySQL applies the assignments left to right.
+     */
+    static final String REGISTER_SQL =
+            "INSERT INTO course_registrations (student_id, course_ref, is_cancelled) " +
+            "VALUES (" + STUDENT_KEY + ", " + COURSE_KEY + ", FALSE) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "registration_date = CASE WHEN is_cancelled THEN CURRENT_TIMESTAMP ELSE registration_date END, " +
+            "cancellation_date = NULL, " +
+            "is_cancelled = FALSE";
+
+    // The registration as it stands, locked until the upsert commits; no row means never registered.
+    private static final String REGISTRATION_STATE_SQL =
+            "SELECT is_cancelled FROM course_registrations " +
+            "WHERE student_id = " + STUDENT_KEY + " AND course_ref = " + COURSE_KEY + " FOR UPDATE";
+
+    /**
+     * Registers the student, reactivating a cancelled registration if there is one.
+     * The outcome comes from the row read under lock before the upsert, not from the
+     * upsert's update count, which depends on the driver's found-rows setting.
+     */
+    public RegistrationState register(String admissionNo, String courseId) throws SQLException {
+        try {
+            return inTransaction(conn -> register(conn, admissionNo, courseId));
+        } catch (SQLTransactionRollbackException e) {
+            // Two first registrations of the same pair can deadlock on the key's gap lock;
+            // the one rolled back finds the survivor's row when it runs again.
+            return inTransaction(conn -> register(conn, admissionNo, courseId));
+        }
+    }
+
+    private RegistrationState register(Connection conn, String admissionNo, String courseId) throws SQLException {
+        Binder keys = ps -> {
+            ps.setString(1, admissionNo);
+            ps.setString(2, courseId);
+        };
+        Boolean cancelled = null;
+        try (PreparedStatement ps = prepare(conn, REGISTRATION_STATE_SQL)) {
+            keys.bind(ps);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    cancelled = rs.getBoolean(1);
+                }
+            }
+        }
+        if (Boolean.FALSE.equals(cancelled)) {
+            return RegistrationState.ALREADY_REGISTERED;
+        }
+        executeUpdate(conn, REGISTER_SQL, keys);
+        return cancelled == null ? RegistrationState.REGISTERED : RegistrationState.REACTIVATED;
+    }
+
+    public boolean cancel(String admissionNo, String courseId) throws SQLException {
+        return update("UPDATE course_registrations SET is_cancelled = TRUE, cancellation_date = CURRENT_TIMESTAMP " +
+                      "WHERE student_id = " + STUDENT_KEY + " AND course_ref = " + COURSE_KEY + " AND is_cancelled = FALSE",
+                ps -> {
+                    ps.setString(1, admissionNo);
+                    ps.setString(2, courseId);
+                }) > 0;
+    }
+
+    /** The active roster together with each student's attendance on the given date. */
+    public void streamRoster(String courseId, LocalDate date, Consumer<RosterEntry> sink) throws SQLException {
+        stream(ROSTER_SQL,
+                ps -> {
+                    ps.setObject(1, date);
+                    ps.setString(2, courseId);
+                },
+                rs -> new RosterEntry(rs.getString("admission_no"), rs.getString("full_name"), rs.getString("class_no"),
+                        rs.getString("status")),
+                sink);
+    }
+
+    public void streamRegisteredStudents(String courseId, Consumer<RegisteredStudent> sink) throws SQLException {
+        stream(REGISTERED_STUDENTS_SQL, ps -> ps.setString(1, courseId),
+                rs -> new RegisteredStudent(
+                        rs.getString("admission_no"),
+                        rs.getString("full_name"),
+                        rs.getString("email"),
+                        rs.getString("phone"),
+                        rs.getString("semester"),
+                        rs.getString("batch"),
+                        rs.getString("dept"),
+                        rs.getString("class_no")),
+                sink);
+    }
+}
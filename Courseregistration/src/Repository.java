@@ -0,0 +1,247 @@
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Base class for the data access layer. Every statement the pages run goes
+ * through these helpers, so fetch size and statement handling live in one place.
+ * Queries use DBConnection.getReadConnection(); updates and transactions go to
+ * the primary and mark the session as having written.
+ *
+ * The last result of each queryList and queryOne (keyed by SQL and bound
+ * parameters) is kept so pages can still show it while the database is
+ * unreachable. Streamed reads and credential checks are never kept.
+ */
+public abstract class Repository {
+
+    public interface Binder {
+        Binder NONE = ps -> { };
+
+        void bind(PreparedStatement ps) throws SQLException;
+    }
+
+    public interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    public interface BatchBinder<T> {
+        void bind(PreparedStatement ps, T item) throws SQLException;
+    }
+
+    public interface TransactionWork<T> {
+        T run(Connection conn) throws SQLException;
+    }
+
+    protected static final int FETCH_SIZE = DBConfig.getInt("db.fetchSize", 100);
+
+    /*
+     * course_registrations, attendance and course_results reference students.id and
+     * courses.id. Pages keep using admission numbers and course codes; these
+     * subqueries translate one parameter into the integer key inside the statement.
+     */
+    protected static final String STUDENT_KEY = "(SELECT id FROM students WHERE admission_no = ?)";
+    protected static final String COURSE_KEY = "(SELECT id FROM courses WHERE course_id = ?)";
+
+    private static final int LAST_RESULT_ENTRIES = DBConfig.getInt("db.breaker.cacheEntries", 256);
+
+    private static final Map<String, Object> LAST_RESULTS = Collections.synchronizedMap(
+            new LinkedHashMap<String, Object>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Object> eldest) {
+                    return size() > LAST_RESULT_ENTRIES;
+                }
+            });
+
+    protected <T> List<T> queryList(String sql, Binder binder, RowMapper<T> mapper) throws SQLException {
+        String key = lastResultKey(sql, binder);
+        List<T> rows = new ArrayList<>();
+        try {
+            read(sql, binder, mapper, rows::add);
+        } catch (SQLException e) {
+            if (!rows.isEmpty()) {
+                // The failure came mid-result; a partial list must not be mistaken for the whole.
+                throw e;
+            }
+            return lastResultOrThrow(key, e);
+        }
+        // The caller gets the same list that is remembered, so neither may change it.
+        List<T> result = Collections.unmodifiableList(rows);
+        remember(key, result);
+        return result;
+    }
+
+    protected <T> Optional<T> queryOne(String sql, Binder binder, RowMapper<T> mapper) throws SQLException {
+        return queryOne(sql, binder, mapper, lastResultKey(sql, binder));
+    }
+
+    /**
+     * queryOne that neither remembers its result nor falls back to one: for logins and
+     * credential checks, whose parameters must not be kept and whose answer must not
+     * outlive a password change.
+     */
+    protected <T> Optional<T> queryOneUncached(String sql, Binder binder, RowMapper<T> mapper) throws SQLException {
+        return queryOne(sql, binder, mapper, null);
+    }
+
+    private <T> Optional<T> queryOne(String sql, Binder binder, RowMapper<T> mapper, String key) throws SQLException {
+        try (Connection conn = DBConnection.getReadConnection();
+             PreparedStatement ps = prepare(conn, sql)) {
+            binder.bind(ps);
+            ps.setMaxRows(1);
+            try (ResultSet rs = ps.executeQuery()) {
+                Optional<T> result = rs.next() ? Optional.ofNullable(mapper.map(rs)) : Optional.empty();
+                remember(key, result);
+                return result;
+            }
+        } catch (SQLException e) {
+            return lastResultOrThrow(key, e);
+        }
+    }
+
+    /**
+     * Hands rows to sink as they are read, without holding the result. Nothing is
+     * kept for the last-result cache either, so large rosters and exports stay
+     * within a fetch-size window; a streamed read fails while the database is down.
+     */
+    protected <T> void stream(String sql, Binder binder, RowMapper<T> mapper, Consumer<? super T> sink) throws SQLException {
+        read(sql, binder, mapper, sink);
+    }
+
+    private <T> void read(String sql, Binder binder, RowMapper<T> mapper, Consumer<? super T> sink) throws SQLException {
+        try (Connection conn = DBConnection.getReadConnection();
+             PreparedStatement ps = prepare(conn, sql)) {
+            binder.bind(ps);
+            ps.setFetchSize(FETCH_SIZE);
+            UnitOfWork work = UnitOfWork.current();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    if (work != null) {
+                        work.checkNotCancelled();
+                    }
+                    sink.accept(mapper.map(rs));
+                }
+            }
+        }
+    }
+
+    protected int update(String sql, Binder binder) throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = prepare(conn, sql)) {
+            binder.bind(ps);
+            int affected = ps.executeUpdate();
+            DBConnection.markWrite();
+            return affected;
+        }
+    }
+
+    protected <T> int batch(Connection conn, String sql, Collection<T> items, BatchBinder<T> binder) throws SQLException {
+        if (items.isEmpty()) {
+            return 0;
+        }
+        int affected = 0;
+        try (PreparedStatement ps = prepare(conn, sql)) {
+            for (T item : items) {
+                binder.bind(ps, item);
+                ps.addBatch();
+            }
+            for (int result : ps.executeBatch()) {
+                if (result >= 0 || result == java.sql.Statement.SUCCESS_NO_INFO) {
+                    affected++;
+                }
+            }
+        }
+        return affected;
+    }
+
+    protected <T> T inTransaction(TransactionWork<T> work) throws SQLException {
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                T result = work.run(conn);
+                conn.commit();
+                DBConnection.markWrite();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                try {
+                    conn.rollback();
+                } catch (SQLException rbEx) {
+                    e.addSuppressed(rbEx);
+                }
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /** Every statement goes through here so it gets the query timeout and can be cancelled with its page load. */
+    protected static PreparedStatement prepare(Connection conn, String sql) throws SQLException {
+        PreparedStatement ps = conn.prepareStatement(sql);
+        try {
+            UnitOfWork.track(ps);
+        } catch (SQLException e) {
+            ps.close();
+            throw e;
+        }
+        return ps;
+    }
+
+    /** SQL plus the parameters the binder sets, or null when the last-result cache is disabled. */
+    private static String lastResultKey(String sql, Binder binder) throws SQLException {
+        if (LAST_RESULT_ENTRIES <= 0) {
+            return null;
+        }
+        StringBuilder key = new StringBuilder(sql);
+        PreparedStatement recorder = (PreparedStatement) Proxy.newProxyInstance(Repository.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                    if (method.getName().startsWith("set") && args != null) {
+                        key.append('|').append(Arrays.deepToString(args));
+                    }
+                    Class<?> type = method.getReturnType();
+                    return type == boolean.class ? Boolean.FALSE : type.isPrimitive() && type != void.class ? 0 : null;
+                });
+        binder.bind(recorder);
+        return key.toString();
+    }
+
+    private static void remember(String key, Object result) {
+        if (key != null && result != null) {
+            LAST_RESULTS.put(key, result);
+        }
+    }
+
+    /** While the database is unreachable, answer with the last good result for the same query if there is one. */
+    @SuppressWarnings("unchecked")
+    private static <R> R lastResultOrThrow(String key, SQLException e) throws SQLException {
+        if (key != null && DBConnection.isUnavailable(e)) {
+            Object cached = LAST_RESULTS.get(key);
+            if (cached != null) {
+                return (R) cached;
+            }
+        }
+        throw e;
+    }
+
+    /** Drops every remembered result, e.g. when the signed-in user changes. */
+    public static void clearLastResults() {
+        LAST_RESULTS.clear();
+    }
+
+    protected static int executeUpdate(Connection conn, String sql, Binder binder) throws SQLException {
+        try (PreparedStatement ps = prepare(conn, sql)) {
+            binder.bind(ps);
+            return ps.executeUpdate();
+        }
+    }
+}
@@ -10,6 +10,8 @@ public class ResetPassword extends JPanel {
     private JButton btnFetch, btnReset, btnBack;
     private MainFrame main;
 
+    private final StudentRepository students = new StudentRepository();
+
     public ResetPassword(MainFrame main) {
         this.main = main;
 
@@ -109,23 +111,19 @@ public class ResetPassword extends JPanel {
             return;
         }
 
-        try (Connection con = DBConnection.getConnection();
-             PreparedStatement pst = con.prepareStatement(
-                     "SELECT security_question FROM students WHERE admission_no=?")) {
-            pst.setString(1, admissionNo);
-            ResultSet rs = pst.executeQuery();
+        UnitOfWork.load(this, "ResetPassword.fetchSecurityQuestion", () -> students.findSecurityQuestion(admissionNo), found -> {
+            String question = found.orElse(null);
 
-            if (rs.next()) {
-                lblSecurityQuestion.setText(rs.getString("security_question"));
+            if (question != null) {
+                lblSecurityQuestion.setText(question);
             } else {
                 JOptionPane.showMessageDialog(this, "Admission number not found!");
                 lblSecurityQuestion.setText(" ");
             }
-
-        } catch (Exception ex) {
+        }, ex -> {
             ex.printStackTrace();
             JOptionPane.showMessageDialog(this, "Database error: " + ex.getMessage());
-        }
+        });
     }
 
     private void resetPassword() {
@@ -144,45 +142,40 @@ public class ResetPassword extends JPanel {
             return;
         }
 
-        try (Connection con = DBConnection.getConnection();
-             PreparedStatement pst = con.prepareStatement(
-                     "SELECT security_answer, password FROM students WHERE admission_no=?")) {
-            pst.setString(1, admissionNo);
-            ResultSet rs = pst.executeQuery();
-
-            if (rs.next()) {
-                String correctAnswer = rs.getString("security_answer");
-                String currentPassword = rs.getString("password");
-
-               
-                if (answer.equals(correctAnswer)) {
-                    if (newPass.equals(currentPassword)) {
-                        JOptionPane.showMessageDialog(this, "Password must be new!");
-                        return;
-                    }
-
-                    PreparedStatement update = con.prepareStatement(
-                            "UPDATE students SET password=? WHERE admission_no=?");
-                    update.setString(1, newPass);
-                    update.setString(2, admissionNo);
-                    update.executeUpdate();
+        UnitOfWork.submit(this, "ResetPassword.resetPassword", () -> {
+            StudentRepository.Credentials credentials = students.findCredentials(admissionNo).orElse(null);
 
+            if (credentials == null) {
+                return ResetOutcome.NOT_FOUND;
+            }
+           
+            if (!answer.equals(credentials.securityAnswer())) {
+                return ResetOutcome.WRONG_ANSWER;
+            }
+            if (newPass.equals(credentials.password())) {
+                return ResetOutcome.SAME_PASSWORD;
+            }
+            students.updatePassword(admissionNo, newPass);
+            return ResetOutcome.RESET;
+        }, outcome -> {
+            switch (outcome) {
+                case RESET -> {
                     JOptionPane.showMessageDialog(this, "Password reset successful!");
                     clearFields();
                     main.showPage("login");
-                } else {
-                    JOptionPane.showMessageDialog(this, "Incorrect answer! (case-sensitive)");
                 }
-            } else {
-                JOptionPane.showMessageDialog(this, "Admission number not found!");
+                case SAME_PASSWORD -> JOptionPane.showMessageDialog(this, "Password must be new!");
+                case WRONG_ANSWER -> JOptionPane.showMessageDialog(this, "Incorrect answer! (case-sensitive)");
+                case NOT_FOUND -> JOptionPane.showMessageDialog(this, "Admission number not found!");
             }
-
-        } catch (Exception ex) {
+        }, ex -> {
             ex.printStackTrace();
             JOptionPane.showMessageDialog(this, "Database error: " + ex.getMessage());
-        }
+        });
     }
 
+    private enum ResetOutcome { NOT_FOUND, WRONG_ANSWER, SAME_PASSWORD, RESET }
+
     private void clearFields() {
         txtAdmissionNo.setText("");
         txtAnswer.setText("");
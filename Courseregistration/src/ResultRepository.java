@@ -0,0 +1,134 @@
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+
+public class ResultRepository extends Repository {
+
+    public record Certificate(String courseId, String courseName, Date completionDate) {
+    }
+
+    public record CertificateDetails(String fullName, Date completionDate) {
+    }
+
+    static final String CERTIFICATES_SQL =
+            "SELECT c.course_id, c.course_name, r.completion_date " +
+            "FROM course_results r " +
+            "JOIN courses c ON c.id = r.course_ref " +
+            "WHERE r.student_id = " + STUDENT_KEY + " AND c.is_deleted = FALSE " +
+            "AND r.status IN ('Passed', 'Completed') " +
+            "ORDER BY r.completion_date DESC";
+
+    /** Used for courses whose min_attendance_pct is NULL. */
+    static final int DEFAULT_MIN_ATTENDANCE_PERCENT = DBConfig.getInt("results.minAttendancePercent", 75);
+
+    /*
+     * Every active registrant gets a row: Completed when their 'Present' days are at
+     * least min_attendance_pct of the distinct dates recorded for the course, Failed
+     * otherwise. Nothing is written until attendance has been taken at least once.
+     * Re-running overwrites earlier outcomes, so late corrections are picked up.
+     */
+    private static final String OUTCOMES_SQL =
+            "SELECT cr.student_id, cr.course_ref, " +
+            "CASE WHEN 100 * COALESCE(p.present_days, 0) >= COALESCE(c.min_attendance_pct, ?) * d.total_days " +
+            "THEN 'Completed' ELSE 'Failed' END AS outcome_status, CURRENT_DATE AS outcome_date " +
+            "FROM courses c " +
+            "JOIN course_registrations cr ON cr.course_ref = c.id AND cr.is_cancelled = FALSE " +
+            "CROSS JOIN (SELECT COUNT(DISTINCT date_recorded) AS total_days FROM attendance " +
+            "WHERE course_ref = " + COURSE_KEY + ") d " +
+            "LEFT JOIN (SELECT student_id, COUNT(*) AS present_days FROM attendance " +
+            "WHERE course_ref = " + COURSE_KEY + " AND status = 'Present' GROUP BY student_id) p " +
+            "ON p.student_id = cr.student_id " +
+            "WHERE c.course_id = ? AND d.total_days > 0";
+
+    // The derived table lets the update read the selected row; VALUES(col) is deprecated in MySQL 8.
+    static final String FINALIZE_SQL =
+            "INSERT INTO course_results (student_id, course_ref, status, completion_date) " +
+            "SELECT * FROM (" + OUTCOMES_SQL + ") AS outcome " +
+            "ON DUPLICATE KEY UPDATE status = outcome.outcome_status, completion_date = outcome.outcome_date";
+
+    // H2 cannot reference the selected row in ON DUPLICATE KEY UPDATE; its MERGE ... KEY is the same upsert.
+    static final String EMBEDDED_FINALIZE_SQL =
+            "MERGE INTO course_results (student_id, course_ref, status, completion_date) " +
+            "KEY (student_id, course_ref) " + OUTCOMES_SQL;
+
+    static String finalizeSql() {
+        return DBConnection.isEmbedded() ? EMBEDDED_FINALIZE_SQL : FINALIZE_SQL;
+    }
+
+    static final String OUTCOME_COUNTS_SQL =
+            "SELECT r.status, COUNT(*) FROM course_results r " +
+            "JOIN course_registrations cr ON cr.student_id = r.student_id AND cr.course_ref = r.course_ref " +
+            "AND cr.is_cancelled = FALSE " +
+            "WHERE r.course_ref = " + COURSE_KEY + " GROUP BY r.status";
+
+    public record FinalizationSummary(int completed, int failed) {
+    }
+
+    public List<Certificate> findCertificates(String admissionNo) throws SQLException {
+        return queryList(CERTIFICATES_SQL, ps -> ps.setString(1, admissionNo),
+                rs -> new Certificate(rs.getString("course_id"), rs.getString("course_name"), rs.getDate("completion_date")));
+    }
+
+    public Optional<CertificateDetails> findCertificateDetails(String admissionNo, String courseId) throws SQLException {
+        return queryOne("SELECT s.full_name, r.completion_date " +
+                        "FROM students s " +
+                        "JOIN course_results r ON r.student_id = s.id " +
+                        "JOIN courses c ON c.id = r.course_ref " +
+                        "WHERE s.admission_no = ? AND c.course_id = ? AND r.status IN ('Passed', 'Completed')",
+                ps -> {
+                    ps.setString(1, admissionNo);
+                    ps.setString(2, courseId);
+                },
+                rs -> new CertificateDetails(rs.getString("full_name"), rs.getDate("completion_date")));
+    }
+
+    /** The course's minimum attendance percentage, or the configured default when it has none. */
+    public int findMinAttendancePercent(String courseId) throws SQLException {
+        return queryOne("SELECT min_attendance_pct FROM courses WHERE course_id = ?",
+                ps -> ps.setString(1, courseId),
+                rs -> {
+                    int pct = rs.getInt(1);
+                    return rs.wasNull() ? DEFAULT_MIN_ATTENDANCE_PERCENT : pct;
+                }).orElse(DEFAULT_MIN_ATTENDANCE_PERCENT);
+    }
+
+    public boolean setMinAttendancePercent(String courseId, int percent) throws SQLException {
+        return update("UPDATE courses SET min_attendance_pct = ? WHERE course_id = ?", ps -> {
+            ps.setInt(1, percent);
+            ps.setString(2, courseId);
+        }) > 0;
+    }
+
+    /**
+     * Writes Completed or Failed for every active registrant in one INSERT ... SELECT,
+     * then reports how many of each the course now has.
+     */
+    public FinalizationSummary finalizeResults(String courseId) throws SQLException {
+        return inTransaction(conn -> {
+            executeUpdate(conn, finalizeSql(), ps -> {
+                ps.setInt(1, DEFAULT_MIN_ATTENDANCE_PERCENT);
+                ps.setString(2, courseId);
+                ps.setString(3, courseId);
+                ps.setString(4, courseId);
+            });
+            int completed = 0;
+            int failed = 0;
+            try (PreparedStatement ps = prepare(conn, OUTCOME_COUNTS_SQL)) {
+                ps.setString(1, courseId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        switch (rs.getString(1)) {
+                            case "Completed" -> completed = rs.getInt(2);
+                            case "Failed" -> failed = rs.getInt(2);
+                            default -> { }
+                        }
+                    }
+                }
+            }
+            return new FinalizationSummary(completed, failed);
+        });
+    }
+}
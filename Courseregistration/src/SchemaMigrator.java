@@ -0,0 +1,664 @@
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Applies the ordered schema migrations recorded in schema_version.
+ *
+ * Runs at startup (db.migrate.onStartup, default true) or from the command line:
+ * <pre>
+ *   java SchemaMigrator [migrate|status|explain]
+ * </pre>
+ * MySQL commits DDL implicitly, so every step is written to be safe to re-run:
+ * tables use IF NOT EXISTS, and columns, keys and indexes are only added or
+ * dropped after checking the catalog.
+ */
+public final class SchemaMigrator {
+
+    interface Step {
+        void apply(Connection conn) throws SQLException;
+    }
+
+    record Migration(int version, String description, Step step) {
+    }
+
+    record HotQuery(String name, String sql, Repository.Binder sample) {
+    }
+
+    private static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "Create core tables", SchemaMigrator::createTables),
+            new Migration(2, "Index hot predicates and add unique keys", SchemaMigrator::createIndexes),
+            new Migration(3, "Integer surrogate keys for students and courses", SchemaMigrator::useSurrogateKeys),
+            new Migration(4, "Index attendance by student", SchemaMigrator::indexAttendanceByStudent),
+            new Migration(5, "Per-course minimum attendance for completion", SchemaMigrator::addCompletionRule),
+            new Migration(6, "Move uploaded posters out of the course row projection", SchemaMigrator::separatePosterImages),
+            new Migration(7, "Course duration and indexed end time", SchemaMigrator::addCourseEndTime)
+    );
+
+    /** The statements every screen runs, checked by {@link #explain(Connection)} for full table scans. */
+    private static final List<HotQuery> HOT_QUERIES = List.of(
+            new HotQuery("CourseRepository.findAvailableForStudent(upcoming)", CourseRepository.AVAILABLE_UPCOMING_SQL,
+                    SchemaMigrator::bindTwoKeys),
+            new HotQuery("CourseRepository.findAvailableForStudent(past)", CourseRepository.AVAILABLE_PAST_SQL,
+                    SchemaMigrator::bindTwoKeys),
+            new HotQuery("CourseRepository.findForStudent", CourseRepository.DETAILS_FOR_STUDENT_SQL,
+                    SchemaMigrator::bindTwoKeys),
+            new HotQuery("CourseRepository.findUpcoming", CourseRepository.UPCOMING_SQL_PREFIX,
+                    ps -> { }),
+            new HotQuery("CourseRepository.findCompleted", CourseRepository.COMPLETED_SQL_PREFIX,
+                    ps -> { }),
+            new HotQuery("RegistrationRepository.findCoursesForStudent(upcoming)",
+                    RegistrationRepository.UPCOMING_COURSES_FOR_STUDENT_SQL, SchemaMigrator::bindTwoKeys),
+            new HotQuery("RegistrationRepository.findCoursesForStudent(past)",
+                    RegistrationRepository.PAST_COURSES_FOR_STUDENT_SQL, SchemaMigrator::bindTwoKeys),
+            new HotQuery("RegistrationRepository.streamRoster", RegistrationRepository.ROSTER_SQL,
+                    ps -> {
+                        ps.setObject(1, LocalDate.now());
+                        ps.setString(2, "");
+                    }),
+            new HotQuery("RegistrationRepository.streamRegisteredStudents", RegistrationRepository.REGISTERED_STUDENTS_SQL,
+                    ps -> ps.setString(1, "")),
+            new HotQuery("AttendanceRepository.findStatuses", AttendanceRepository.STATUSES_FOR_DATE_SQL,
+                    ps -> {
+                        ps.setString(1, "");
+                        ps.setObject(2, LocalDate.now());
+                    }),
+            new HotQuery("ResultRepository.findCertificates", ResultRepository.CERTIFICATES_SQL,
+                    ps -> ps.setString(1, "")),
+            new HotQuery("ResultRepository.finalizeResults", ResultRepository.finalizeSql(),
+                    ps -> {
+                        ps.setInt(1, ResultRepository.DEFAULT_MIN_ATTENDANCE_PERCENT);
+                        ps.setString(2, "");
+                        ps.setString(3, "");
+                        ps.setString(4, "");
+                    })
+    );
+
+    private static final Pattern H2_TABLE_SCAN = Pattern.compile("(\\w+)\\.tableScan");
+
+    private SchemaMigrator() {
+    }
+
+    /** Called from MainFrame.main before the UI is built. Failures are reported, not fatal. */
+    public static void migrateOnStartup() {
+        if (!DBConfig.getBoolean("db.migrate.onStartup", true)) {
+            return;
+        }
+        try (Connection conn = DBConnection.getConnection()) {
+            migrate(conn);
+            if (DBConfig.getBoolean("db.migrate.explainOnStartup", false)) {
+                explain(conn).forEach(line -> System.err.println("Warning: " + line));
+            }
+        } catch (SQLException e) {
+            System.err.println("Schema migration failed: " + e.getMessage());
+        }
+    }
+
+    /** Applies every migration newer than the recorded version. Returns the number applied. */
+    public static int migrate(Connection conn) throws SQLException {
+        return migrate(conn, Integer.MAX_VALUE);
+    }
+
+    /** Applies the migrations newer than the recorded version, up to and including target. */
+    static int migrate(Connection conn, int target) throws SQLException {
+        int current = currentVersion(conn);
+        int applied = 0;
+        for (Migration m : MIGRATIONS) {
+            if (m.version() <= current || m.version() > target) {
+                continue;
+            }
+            long start = System.nanoTime();
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                m.step().apply(conn);
+                try (PreparedStatement ps = conn.prepareStatement(
+                        "INSERT INTO schema_version (version, description, execution_ms) VALUES (?, ?, ?)")) {
+                    ps.setInt(1, m.version());
+                    ps.setString(2, m.description());
+                    ps.setLong(3, (System.nanoTime() - start) / 1_000_000L);
+                    ps.executeUpdate();
+                }
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw new SQLException("Migration V" + m.version() + " (" + m.description() + ") failed: " + e.getMessage(), e);
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+            System.out.println("Applied schema migration V" + m.version() + ": " + m.description());
+            applied++;
+        }
+        return applied;
+    }
+
+    public static int currentVersion(Connection conn) throws SQLException {
+        ensureVersionTable(conn);
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    public static int latestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).version();
+    }
+
+    /**
+     * Runs EXPLAIN on each hot query and returns one line per table that would be
+     * read with a full scan. An empty list means every hot path is index-backed.
+     */
+    public static List<String> explain(Connection conn) throws SQLException {
+        List<String> findings = new ArrayList<>();
+        for (HotQuery q : HOT_QUERIES) {
+            try (PreparedStatement ps = conn.prepareStatement("EXPLAIN " + q.sql())) {
+                q.sample().bind(ps);
+                try (ResultSet rs = ps.executeQuery()) {
+                    for (String table : fullScans(rs)) {
+                        findings.add(q.name() + " scans all rows of " + table);
+                    }
+                }
+            }
+        }
+        return findings;
+    }
+
+    /** MySQL reports access type ALL per table; H2 returns a plan text that marks scans with tableScan. */
+    private static Set<String> fullScans(ResultSet rs) throws SQLException {
+        Set<String> tables = new TreeSet<>();
+        ResultSetMetaData md = rs.getMetaData();
+        int typeColumn = 0;
+        int tableColumn = 0;
+        for (int i = 1; i <= md.getColumnCount(); i++) {
+            String label = md.getColumnLabel(i);
+            if ("type".equalsIgnoreCase(label)) {
+                typeColumn = i;
+            } else if ("table".equalsIgnoreCase(label)) {
+                tableColumn = i;
+            }
+        }
+        while (rs.next()) {
+            if (typeColumn > 0) {
+                if ("ALL".equalsIgnoreCase(rs.getString(typeColumn))) {
+                    tables.add(tableColumn > 0 ? rs.getString(tableColumn) : "?");
+                }
+            } else {
+                String plan = rs.getString(1);
+                Matcher m = H2_TABLE_SCAN.matcher(plan == null ? "" : plan);
+                while (m.find()) {
+                    tables.add(m.group(1).toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        return tables;
+    }
+
+    private static void ensureVersionTable(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.executeUpdate("CREATE TABLE IF NOT EXISTS schema_version (" +
+                    "version INT PRIMARY KEY, " +
+                    "description VARCHAR(200) NOT NULL, " +
+                    "installed_on TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
+                    "execution_ms BIGINT)");
+        }
+    }
+
+    // ---- V1 ----
+
+    private static void createTables(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.executeUpdate("CREATE TABLE IF NOT EXISTS admins (" +
+                    "username VARCHAR(50) PRIMARY KEY, " +
+                    "password VARCHAR(255) NOT NULL)");
+
+            st.executeUpdate("CREATE TABLE IF NOT EXISTS students (" +
+                    "admission_no VARCHAR(20) PRIMARY KEY, " +
+                    "reg_no VARCHAR(30), " +
+                    "full_name VARCHAR(100) NOT NULL, " +
+                    "gender VARCHAR(10), " +
+                    "dob DATE, " +
+                    "class_no VARCHAR(20), " +
+                    "dept VARCHAR(100), " +
+                    "semester VARCHAR(10), " +
+                    "batch VARCHAR(20), " +
+                    "phone VARCHAR(20), " +
+                    "email VARCHAR(100), " +
+                    "password VARCHAR(255) NOT NULL, " +
+                    "security_question VARCHAR(255), " +
+                    "security_answer VARCHAR(255))");
+
+            st.executeUpdate("CREATE TABLE IF NOT EXISTS courses (" +
+                    "course_id VARCHAR(20) PRIMARY KEY, " +
+                    "course_name VARCHAR(150) NOT NULL, " +
+                    "description TEXT, " +
+                    "course_date DATE, " +
+                    "course_time TIME, " +
+                    "mode VARCHAR(20), " +
+                    "coordinator1 VARCHAR(100), " +
+                    "coordinator2 VARCHAR(100), " +
+                    "poster VARCHAR(255), " +
+                    "is_deleted BOOLEAN NOT NULL DEFAULT FALSE)");
+
+            st.executeUpdate("CREATE TABLE IF NOT EXISTS course_registrations (" +
+                    "registration_id INT AUTO_INCREMENT PRIMARY KEY, " +
+                    "student_admission_no VARCHAR(20) NOT NULL, " +
+                    "course_id VARCHAR(20) NOT NULL, " +
+                    "registration_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
+                    "is_cancelled BOOLEAN NOT NULL DEFAULT FALSE, " +
+                    "cancellation_date TIMESTAMP NULL, " +
+                    "FOREIGN KEY (student_admission_no) REFERENCES students (admission_no), " +
+                    "FOREIGN KEY (course_id) REFERENCES courses (course_id))");
+
+            st.executeUpdate("CREATE TABLE IF NOT EXISTS attendance (" +
+                    "attendance_id INT AUTO_INCREMENT PRIMARY KEY, " +
+                    "course_id VARCHAR(20) NOT NULL, " +
+                    "admission_no VARCHAR(20) NOT NULL, " +
+                    "date_recorded DATE NOT NULL, " +
+                    "status VARCHAR(10) NOT NULL, " +
+                    "FOREIGN KEY (course_id) REFERENCES courses (course_id), " +
+                    "FOREIGN KEY (admission_no) REFERENCES students (admission_no))");
+
+            st.executeUpdate("CREATE TABLE IF NOT EXISTS course_results (" +
+                    "admission_no VARCHAR(20) NOT NULL, " +
+                    "course_id VARCHAR(20) NOT NULL, " +
+                    "status VARCHAR(20) NOT NULL, " +
+                    "completion_date DATE, " +
+                    "PRIMARY KEY (admission_no, course_id), " +
+                    "FOREIGN KEY (admission_no) REFERENCES students (admission_no), " +
+                    "FOREIGN KEY (course_id) REFERENCES courses (course_id))");
+        }
+    }
+
+    // ---- V2 ----
+
+    private static void createIndexes(Connection conn) throws SQLException {
+        // Catalog tabs: WHERE is_deleted = ? AND course_date/course_time range, ORDER BY date, time.
+        createIndexIfMissing(conn, "courses", "idx_courses_active_schedule", false,
+                "is_deleted", "course_date", "course_time");
+
+        // One live row per student and course; REPLACE/re-registration rely on it.
+        createIndexIfMissing(conn, "course_registrations", "uk_registrations_student_course", true,
+                "student_admission_no", "course_id");
+        // "My courses" and the catalog anti-join, covering the is_cancelled filter.
+        createIndexIfMissing(conn, "course_registrations", "idx_registrations_student_active", false,
+                "student_admission_no", "is_cancelled", "course_id");
+        // Rosters by course.
+        createIndexIfMissing(conn, "course_registrations", "idx_registrations_course_active", false,
+                "course_id", "is_cancelled", "student_admission_no");
+
+        // One mark per student per course per day; REPLACE INTO attendance (course_id, admission_no,
+        // date_recorded, status) overwrites a day's mark on this key instead of adding a second row.
+        createIndexIfMissing(conn, "attendance", "uk_attendance_course_student_date", true,
+                "course_id", "admission_no", "date_recorded");
+        // Covers the attendance lookups and the finalization scan without touching rows.
+        createIndexIfMissing(conn, "attendance", "idx_attendance_course_student_status", false,
+                "course_id", "admission_no", "status", "date_recorded");
+
+        // Certificates: WHERE admission_no = ? AND status IN (...), covering completion_date.
+        createIndexIfMissing(conn, "course_results", "idx_results_student_status", false,
+                "admission_no", "status", "course_id", "completion_date");
+    }
+
+    // ---- V3 ----
+
+    /**
+     * Gives students and courses an INT id and moves the three high-volume tables onto
+     * it: course_registrations and attendance get student_id/course_ref in place of the
+     * VARCHAR natural keys, and course_results is re-keyed on (student_id, course_ref).
+     * The natural keys stay unique on students and courses and are what the UI shows.
+     */
+    private static void useSurrogateKeys(Connection conn) throws SQLException {
+        addSurrogateKey(conn, "students");
+        addSurrogateKey(conn, "courses");
+
+        rekey(conn, "course_registrations", "student_admission_no", "course_id");
+        rekey(conn, "attendance", "admission_no", "course_id");
+        rekey(conn, "course_results", "admission_no", "course_id");
+
+        if (!hasPrimaryKey(conn, "course_results")) {
+            execute(conn, "ALTER TABLE course_results ADD PRIMARY KEY (student_id, course_ref)");
+        }
+
+        // Same names and purposes as V2, now over four-byte keys.
+        createIndexIfMissing(conn, "course_registrations", "uk_registrations_student_course", true,
+                "student_id", "course_ref");
+        createIndexIfMissing(conn, "course_registrations", "idx_registrations_student_active", false,
+                "student_id", "is_cancelled", "course_ref");
+        createIndexIfMissing(conn, "course_registrations", "idx_registrations_course_active", false,
+                "course_ref", "is_cancelled", "student_id");
+        createIndexIfMissing(conn, "attendance", "uk_attendance_course_student_date", true,
+                "course_ref", "student_id", "date_recorded");
+        createIndexIfMissing(conn, "attendance", "idx_attendance_course_student_status", false,
+                "course_ref", "student_id", "status", "date_recorded");
+        createIndexIfMissing(conn, "course_results", "idx_results_student_status", false,
+                "student_id", "status", "course_ref", "completion_date");
+
+        for (String table : List.of("course_registrations", "attendance", "course_results")) {
+            String prefix = "fk_" + table.replace("course_", "");
+            addForeignKeyIfMissing(conn, table, prefix + "_student", "student_id", "students");
+            addForeignKeyIfMissing(conn, table, prefix + "_course", "course_ref", "courses");
+        }
+    }
+
+    private static void addSurrogateKey(Connection conn, String table) throws SQLException {
+        if (!columnExists(conn, table, "id")) {
+            // Existing rows are numbered as the column is added.
+            execute(conn, "ALTER TABLE " + table + " ADD COLUMN id INT NOT NULL AUTO_INCREMENT UNIQUE");
+        }
+    }
+
+    /** Adds and backfills student_id/course_ref, then drops the VARCHAR columns and every key over them. */
+    private static void rekey(Connection conn, String table, String studentColumn, String courseColumn)
+            throws SQLException {
+        if (!columnExists(conn, table, "student_id")) {
+            execute(conn, "ALTER TABLE " + table + " ADD COLUMN student_id INT NULL");
+        }
+        if (!columnExists(conn, table, "course_ref")) {
+            execute(conn, "ALTER TABLE " + table + " ADD COLUMN course_ref INT NULL");
+        }
+        if (!columnExists(conn, table, studentColumn)) {
+            return;
+        }
+        execute(conn, "UPDATE " + table + " SET " +
+                "student_id = (SELECT s.id FROM students s WHERE s.admission_no = " + table + "." + studentColumn + "), " +
+                "course_ref = (SELECT c.id FROM courses c WHERE c.course_id = " + table + "." + courseColumn + ") " +
+                "WHERE student_id IS NULL OR course_ref IS NULL");
+        // Rows pointing at students or courses that no longer exist cannot get the new
+        // NOT NULL keys. They are copied, natural keys and all, to <table>_orphans before
+        // being removed, so nothing is lost when the VARCHAR columns are dropped below.
+        String orphaned = " FROM " + table + " WHERE (student_id IS NULL OR course_ref IS NULL)";
+        String quarantine = table + "_orphans";
+        execute(conn, "CREATE TABLE IF NOT EXISTS " + quarantine + " AS SELECT *" + orphaned + " AND 1 = 0");
+        int orphans = execute(conn, "INSERT INTO " + quarantine + " SELECT *" + orphaned);
+        if (orphans > 0) {
+            execute(conn, "DELETE" + orphaned);
+            System.err.println("Warning: moved " + orphans + " row(s) of " + table + " whose " + studentColumn
+                    + " or " + courseColumn + " no longer exists to " + quarantine);
+        }
+        execute(conn, "ALTER TABLE " + table + " MODIFY COLUMN student_id INT NOT NULL");
+        execute(conn, "ALTER TABLE " + table + " MODIFY COLUMN course_ref INT NOT NULL");
+
+        Set<String> natural = Set.of(studentColumn.toLowerCase(Locale.ROOT), courseColumn.toLowerCase(Locale.ROOT));
+        for (String fk : foreignKeysOn(conn, table, natural)) {
+            execute(conn, isH2(conn)
+                    ? "ALTER TABLE " + table + " DROP CONSTRAINT " + quote(conn, fk)
+                    : "ALTER TABLE " + table + " DROP FOREIGN KEY " + quote(conn, fk));
+        }
+        if (primaryKeyColumns(conn, table).stream().anyMatch(natural::contains)) {
+            execute(conn, "ALTER TABLE " + table + " DROP PRIMARY KEY");
+        }
+        for (String index : indexesOn(conn, table, natural)) {
+            execute(conn, isH2(conn)
+                    ? "DROP INDEX " + quote(conn, index)
+                    : "ALTER TABLE " + table + " DROP INDEX " + quote(conn, index));
+        }
+        execute(conn, "ALTER TABLE " + table + " DROP COLUMN " + studentColumn);
+        execute(conn, "ALTER TABLE " + table + " DROP COLUMN " + courseColumn);
+    }
+
+    private static void addForeignKeyIfMissing(Connection conn, String table, String name, String column,
+                                               String parent) throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        try (ResultSet rs = meta.getImportedKeys(conn.getCatalog(), null, metaName(meta, table))) {
+            while (rs.next()) {
+                if (name.equalsIgnoreCase(rs.getString("FK_NAME"))) {
+                    return;
+                }
+            }
+        }
+        execute(conn, "ALTER TABLE " + table + " ADD CONSTRAINT " + name +
+                " FOREIGN KEY (" + column + ") REFERENCES " + parent + " (id)");
+    }
+
+    private static boolean columnExists(Connection conn, String table, String column) throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        try (ResultSet rs = meta.getColumns(conn.getCatalog(), null, metaName(meta, table), metaName(meta, column))) {
+            return rs.next();
+        }
+    }
+
+    private static boolean hasPrimaryKey(Connection conn, String table) throws SQLException {
+        return !primaryKeyColumns(conn, table).isEmpty();
+    }
+
+    private static Set<String> primaryKeyColumns(Connection conn, String table) throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        Set<String> columns = new TreeSet<>();
+        try (ResultSet rs = meta.getPrimaryKeys(conn.getCatalog(), null, metaName(meta, table))) {
+            while (rs.next()) {
+                columns.add(rs.getString("COLUMN_NAME").toLowerCase(Locale.ROOT));
+            }
+        }
+        return columns;
+    }
+
+    private static Set<String> foreignKeysOn(Connection conn, String table, Set<String> columns) throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        Set<String> names = new TreeSet<>();
+        try (ResultSet rs = meta.getImportedKeys(conn.getCatalog(), null, metaName(meta, table))) {
+            while (rs.next()) {
+                if (columns.contains(rs.getString("FKCOLUMN_NAME").toLowerCase(Locale.ROOT))) {
+                    names.add(rs.getString("FK_NAME"));
+                }
+            }
+        }
+        return names;
+    }
+
+    /** Secondary indexes with at least one of the given columns; the primary key is handled separately. */
+    private static Set<String> indexesOn(Connection conn, String table, Set<String> columns) throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        Set<String> names = new TreeSet<>();
+        try (ResultSet rs = meta.getIndexInfo(conn.getCatalog(), null, metaName(meta, table), false, true)) {
+            while (rs.next()) {
+                String index = rs.getString("INDEX_NAME");
+                String column = rs.getString("COLUMN_NAME");
+                if (index != null && column != null && !index.toUpperCase(Locale.ROOT).startsWith("PRIMARY")
+                        && columns.contains(column.toLowerCase(Locale.ROOT))) {
+                    names.add(index);
+                }
+            }
+        }
+        return names;
+    }
+
+    private static String metaName(DatabaseMetaData meta, String name) throws SQLException {
+        return meta.storesUpperCaseIdentifiers() ? name.toUpperCase(Locale.ROOT) : name;
+    }
+
+    /** Catalog names are used as returned; H2 reports generated names in upper case even with DATABASE_TO_LOWER. */
+    private static String quote(Connection conn, String name) throws SQLException {
+        String q = conn.getMetaData().getIdentifierQuoteString().trim();
+        return q + name + q;
+    }
+
+    private static boolean isH2(Connection conn) throws SQLException {
+        return conn.getMetaData().getDatabaseProductName().toUpperCase(Locale.ROOT).contains("H2");
+    }
+
+    private static int execute(Connection conn, String sql) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            return st.executeUpdate(sql);
+        }
+    }
+
+    // ---- V4 ----
+
+    private static void indexAttendanceByStudent(Connection conn) throws SQLException {
+        // The catalog's per-student 'Present' aggregate: WHERE student_id = ? AND status = ? GROUP BY course_ref.
+        createIndexIfMissing(conn, "attendance", "idx_attendance_student_status", false,
+                "student_id", "status", "course_ref");
+    }
+
+    // ---- V5 ----
+
+    private static void addCompletionRule(Connection conn) throws SQLException {
+        // NULL means ResultRepository.DEFAULT_MIN_ATTENDANCE_PERCENT.
+        if (!columnExists(conn, "courses", "min_attendance_pct")) {
+            execute(conn, "ALTER TABLE courses ADD COLUMN min_attendance_pct INT NULL");
+        }
+    }
+
+    // ---- V6 ----
+
+    /**
+     * courses.poster holds a file name under posters/, but older EditCoursePage builds
+     * wrote image bytes into it (on databases where it was a BLOB). Images move to
+     * poster_image, file names stay, and poster becomes VARCHAR again.
+     */
+    private static void separatePosterImages(Connection conn) throws SQLException {
+        if (!columnExists(conn, "courses", "poster_image")) {
+            execute(conn, "ALTER TABLE courses ADD COLUMN poster_image MEDIUMBLOB NULL");
+        }
+        if (!isBinaryColumn(conn, "courses", "poster")) {
+            return;
+        }
+
+        List<String[]> fileNames = new ArrayList<>();
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT course_id, poster FROM courses WHERE poster IS NOT NULL")) {
+            while (rs.next()) {
+                byte[] bytes = rs.getBytes("poster");
+                String text = new String(bytes, java.nio.charset.StandardCharsets.UTF_8);
+                if (bytes.length <= 255 && text.chars().noneMatch(Character::isISOControl)) {
+                    fileNames.add(new String[]{rs.getString("course_id"), text});
+                }
+            }
+        }
+        execute(conn, "UPDATE courses SET poster_image = poster WHERE poster IS NOT NULL AND poster_image IS NULL");
+        execute(conn, "UPDATE courses SET poster = NULL");
+        execute(conn, "ALTER TABLE courses MODIFY COLUMN poster VARCHAR(255) NULL");
+        try (PreparedStatement ps = conn.prepareStatement(
+                "UPDATE courses SET poster = ?, poster_image = NULL WHERE course_id = ?")) {
+            for (String[] row : fileNames) {
+                ps.setString(1, row[1]);
+                ps.setString(2, row[0]);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    // ---- V7 ----
+
+    /**
+     * Upcoming versus past used to be decided on each client from course_date,
+     * course_time and an assumed hour. ends_at is now stored (computed by the server
+     * whenever CourseRepository writes a course) so the database clock decides, as a
+     * range on one index.
+     */
+    private static void addCourseEndTime(Connection conn) throws SQLException {
+        if (!columnExists(conn, "courses", "duration_minutes")) {
+            execute(conn, "ALTER TABLE courses ADD COLUMN duration_minutes INT NOT NULL DEFAULT "
+                    + CourseRepository.DEFAULT_DURATION_MINUTES);
+        }
+        if (!columnExists(conn, "courses", "ends_at")) {
+            execute(conn, "ALTER TABLE courses ADD COLUMN ends_at DATETIME NULL");
+        }
+
+        // Same server-side expression CourseRepository writes with, so old and new rows agree.
+        execute(conn, "UPDATE courses SET ends_at = " + CourseRepository.ENDS_AT_OF_ROW
+                + " WHERE ends_at IS NULL AND course_date IS NOT NULL");
+
+        // Both tabs filter live courses on ends_at: WHERE is_deleted = FALSE AND ends_at > / <= now.
+        createIndexIfMissing(conn, "courses", "idx_courses_active_ends", false, "is_deleted", "ends_at");
+    }
+
+    private static boolean isBinaryColumn(Connection conn, String table, String column) throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        try (ResultSet rs = meta.getColumns(conn.getCatalog(), null, metaName(meta, table), metaName(meta, column))) {
+            if (!rs.next()) {
+                return false;
+            }
+            int type = rs.getInt("DATA_TYPE");
+            return type == java.sql.Types.BLOB || type == java.sql.Types.LONGVARBINARY
+                    || type == java.sql.Types.VARBINARY || type == java.sql.Types.BINARY;
+        }
+    }
+
+    static void createIndexIfMissing(Connection conn, String table, String name, boolean unique,
+                                     String... columns) throws SQLException {
+        if (indexExists(conn, table, name)) {
+            return;
+        }
+        String columnList = String.join(", ", columns);
+        if (unique) {
+            requireNoDuplicates(conn, table, columnList);
+        }
+        try (Statement st = conn.createStatement()) {
+            st.executeUpdate("CREATE " + (unique ? "UNIQUE " : "") + "INDEX " + name +
+                    " ON " + table + " (" + columnList + ")");
+        }
+    }
+
+    private static boolean indexExists(Connection conn, String table, String name) throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        try (ResultSet rs = meta.getIndexInfo(conn.getCatalog(), null, metaName(meta, table), false, true)) {
+            while (rs.next()) {
+                if (name.equalsIgnoreCase(rs.getString("INDEX_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /** A unique key cannot be added over existing duplicates; say which table needs cleaning first. */
+    private static void requireNoDuplicates(Connection conn, String table, String columnList) throws SQLException {
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM (SELECT " + columnList + " FROM " + table +
+                     " GROUP BY " + columnList + " HAVING COUNT(*) > 1) d")) {
+            int groups = rs.next() ? rs.getInt(1) : 0;
+            if (groups > 0) {
+                throw new SQLException(groups + " duplicate (" + columnList + ") groups in " + table +
+                        "; remove them before adding the unique key");
+            }
+        }
+    }
+
+    private static void bindTwoKeys(PreparedStatement ps) throws SQLException {
+        ps.setString(1, "");
+        ps.setString(2, "");
+    }
+
+    public static void main(String[] args) {
+        String command = args.length > 0 ? args[0] : "migrate";
+        try (Connection conn = DBConnection.getConnection()) {
+            switch (command) {
+                case "migrate" -> {
+                    int applied = migrate(conn);
+                    System.out.println("Schema at V" + currentVersion(conn) + " (" + applied + " migration(s) applied)");
+                }
+                case "status" -> System.out.println("Schema at V" + currentVersion(conn) + ", latest is V" + latestVersion());
+                case "explain" -> {
+                    List<String> findings = explain(conn);
+                    if (findings.isEmpty()) {
+                        System.out.println("No full table scans in " + HOT_QUERIES.size() + " hot queries.");
+                    } else {
+                        findings.forEach(System.out::println);
+                    }
+                }
+                default -> {
+                    System.err.println("Usage: java SchemaMigrator [migrate|status|explain]");
+                    System.exit(2);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Schema migration failed: " + e.getMessage());
+            System.exit(1);
+        }
+        System.exit(0);
+    }
+}
@@ -0,0 +1,108 @@
+import javax.swing.JComponent;
+import javax.swing.JScrollBar;
+import javax.swing.JScrollPane;
+import javax.swing.SwingUtilities;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Infinite scroll for a card list backed by a keyset-paged query. reset() shows
+ * the first page; the next one is fetched whenever the scroll pane comes within a
+ * screen of its end. Only the cursor of the last row is kept between pages.
+ *
+ * Each fetch is a UnitOfWork owned by the list's own panel, so the tabs of one
+ * page page independently, and a reset supersedes a page still being fetched.
+ * All methods must be called on the EDT.
+ */
+public final class ScrollPager<T> {
+
+    public interface PageFetch<T> {
+        CourseRepository.Page<T> fetch(CourseRepository.Cursor after) throws Exception;
+    }
+
+    public interface PageView<T> {
+        /** first is true for the page that replaces what the list showed; more says whether another follows. */
+        void show(List<T> rows, boolean first, boolean more);
+    }
+
+    private final JComponent list;
+    private final JScrollPane scroll;
+    private final String action;
+    private final PageFetch<T> fetch;
+    private final PageView<T> view;
+    private final Consumer<Exception> onError;
+
+    private CourseRepository.Cursor next;
+    private boolean exhausted = true;
+    private UnitOfWork pending;
+    // When the first page of the current contents arrived; 0 until then or once invalidated.
+    private long loadedAt;
+
+    public ScrollPager(JComponent list, JScrollPane scroll, String action, PageFetch<T> fetch,
+                       PageView<T> view, Consumer<Exception> onError) {
+        this.list = list;
+        this.scroll = scroll;
+        this.action = action;
+        this.fetch = fetch;
+        this.view = view;
+        this.onError = onError;
+        scroll.getVerticalScrollBar().addAdjustmentListener(e -> loadMoreIfNearEnd());
+    }
+
+    /** Starts over from the first page, e.g. after a search or an edit. */
+    public void reset() {
+        next = null;
+        exhausted = false;
+        loadedAt = 0;
+        load();
+    }
+
+    /** Marks the contents out of date; the next ensureFresh reloads them. */
+    public void invalidate() {
+        loadedAt = 0;
+    }
+
+    /** Reloads unless the contents are younger than maxAgeMillis or their first page is on its way. */
+    public void ensureFresh(long maxAgeMillis) {
+        if (isLoadingFirstPage()) {
+            return;
+        }
+        if (loadedAt == 0 || System.currentTimeMillis() - loadedAt > maxAgeMillis) {
+            reset();
+        }
+    }
+
+    private boolean isLoadingFirstPage() {
+        return next == null && !exhausted && pending != null && !pending.isCancelled();
+    }
+
+    private void loadMoreIfNearEnd() {
+        // A unit cancelled because its page was hidden never reports back, so it does not count as loading.
+        if (exhausted || (pending != null && !pending.isCancelled())) {
+            return;
+        }
+        JScrollBar bar = scroll.getVerticalScrollBar();
+        if (bar.getValue() + 2 * bar.getVisibleAmount() >= bar.getMaximum()) {
+            load();
+        }
+    }
+
+    private void load() {
+        CourseRepository.Cursor after = next;
+        pending = UnitOfWork.load(list, action, () -> fetch.fetch(after), page -> {
+            pending = null;
+            if (after == null) {
+                loadedAt = System.currentTimeMillis();
+            }
+            next = page.next();
+            exhausted = next == null;
+            view.show(page.rows(), after == null, !exhausted);
+            // A short page may not fill the viewport, and then no scrolling would ask for more.
+            SwingUtilities.invokeLater(this::loadMoreIfNearEnd);
+        }, ex -> {
+            pending = null;
+            exhausted = true;
+            onError.accept(ex);
+        });
+    }
+}
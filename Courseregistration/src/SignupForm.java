@@ -2,8 +2,6 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import com.toedter.calendar.JDateChooser; 
@@ -19,6 +17,8 @@ public class SignupForm extends JPanel {
 
     private MainFrame main; 
 
+    private final StudentRepository students = new StudentRepository();
+
     public SignupForm(MainFrame main) {
         this.main = main; 
         setLayout(new BorderLayout());
@@ -235,41 +235,27 @@ public class SignupForm extends JPanel {
             return;
         }
 
-        SimpleDateFormat dbFormat = new SimpleDateFormat("yyyy-MM-dd");
-        String dobForDb = dbFormat.format(selectedDate);
+        java.sql.Date dobForDb = java.sql.Date.valueOf(new SimpleDateFormat("yyyy-MM-dd").format(selectedDate));
 
         
-        try (Connection conn = DBConnection.getConnection()) {
-            String sql = "INSERT INTO students (admission_no, reg_no, full_name, gender, dob, class_no, dept, semester, batch, phone, email, password, security_question, security_answer) VALUES (?,?,?,?,?,?,?,?,?,?,?,?,?,?)";
-            PreparedStatement pst = conn.prepareStatement(sql);
-            pst.setString(1, admissionNo);
-            pst.setString(2, regNo);
-            pst.setString(3, fullName);
-            pst.setString(4, gender);
-            pst.setString(5, dobForDb);
-            pst.setString(6, classNo);
-            pst.setString(7, dept);
-            pst.setString(8, semester);
-            pst.setString(9, batch);
-            pst.setString(10, phone);
-            pst.setString(11, email);
-            pst.setString(12, pass);
-            pst.setString(13, secQ);
-            pst.setString(14, secA);
-            pst.executeUpdate();
-            
+        StudentRepository.Student student = new StudentRepository.Student(admissionNo, regNo, fullName, gender, dobForDb,
+                classNo, dept, semester, batch, phone, email);
+        UnitOfWork.submit(this, "SignupForm.createProfile", () -> {
+            students.insert(student, pass, secQ, secA);
+            return null;
+        }, done -> {
             JOptionPane.showMessageDialog(this, "Profile created successfully! You can now log in.");
             clearFields(); 
             main.showPage("login");
-        } catch (SQLException ex) {
+        }, ex -> {
             ex.printStackTrace();
            
-            if (ex.getSQLState().startsWith("23")) { 
+            if (ex instanceof SQLException sql && sql.getSQLState() != null && sql.getSQLState().startsWith("23")) { 
                  JOptionPane.showMessageDialog(this, "Creation failed: Admission Number or Registration Number already exists.", "Database Error", JOptionPane.ERROR_MESSAGE);
             } else {
                  JOptionPane.showMessageDialog(this, "Database error: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
             }
-        }
+        });
     }
 
   
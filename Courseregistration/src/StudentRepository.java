@@ -0,0 +1,103 @@
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Optional;
+
+public class StudentRepository extends Repository {
+
+    public record Student(String admissionNo, String regNo, String fullName, String gender, Date dob,
+                          String classNo, String dept, String semester, String batch, String phone, String email) {
+    }
+
+    public record Credentials(String securityAnswer, String password) {
+    }
+
+    private static final String PROFILE_COLUMNS =
+            "admission_no, reg_no, full_name, gender, dob, class_no, dept, semester, batch, phone, email";
+
+    private static final RowMapper<Student> PROFILE_MAPPER = rs -> new Student(
+            rs.getString("admission_no"),
+            rs.getString("reg_no"),
+            rs.getString("full_name"),
+            rs.getString("gender"),
+            rs.getDate("dob"),
+            rs.getString("class_no"),
+            rs.getString("dept"),
+            rs.getString("semester"),
+            rs.getString("batch"),
+            rs.getString("phone"),
+            rs.getString("email"));
+
+    public Optional<String> authenticate(String admissionNo, String password) throws SQLException {
+        return queryOneUncached("SELECT full_name FROM students WHERE admission_no = ? AND password = ?",
+                ps -> {
+                    ps.setString(1, admissionNo);
+                    ps.setString(2, password);
+                },
+                rs -> rs.getString("full_name"));
+    }
+
+    public Optional<Student> findProfile(String admissionNo) throws SQLException {
+        return queryOne("SELECT " + PROFILE_COLUMNS + " FROM students WHERE admission_no = ?",
+                ps -> ps.setString(1, admissionNo), PROFILE_MAPPER);
+    }
+
+    public void insert(Student s, String password, String securityQuestion, String securityAnswer) throws SQLException {
+        update("INSERT INTO students (admission_no, reg_no, full_name, gender, dob, class_no, dept, semester, batch, phone, email, password, security_question, security_answer) VALUES (?,?,?,?,?,?,?,?,?,?,?,?,?,?)",
+                ps -> {
+                    ps.setString(1, s.admissionNo());
+                    ps.setString(2, s.regNo());
+                    ps.setString(3, s.fullName());
+                    ps.setString(4, s.gender());
+                    ps.setDate(5, s.dob());
+                    ps.setString(6, s.classNo());
+                    ps.setString(7, s.dept());
+                    ps.setString(8, s.semester());
+                    ps.setString(9, s.batch());
+                    ps.setString(10, s.phone());
+                    ps.setString(11, s.email());
+                    ps.setString(12, password);
+                    ps.setString(13, securityQuestion);
+                    ps.setString(14, securityAnswer);
+                });
+    }
+
+    public int updateProfile(Student s) throws SQLException {
+        return update("UPDATE students SET reg_no=?, full_name=?, gender=?, dob=?, class_no=?, dept=?, semester=?, batch=?, phone=?, email=? WHERE admission_no=?",
+                ps -> {
+                    ps.setString(1, s.regNo());
+                    ps.setString(2, s.fullName());
+                    ps.setString(3, s.gender());
+                    if (s.dob() != null) {
+                        ps.setDate(4, s.dob());
+                    } else {
+                        ps.setNull(4, Types.DATE);
+                    }
+                    ps.setString(5, s.classNo());
+                    ps.setString(6, s.dept());
+                    ps.setString(7, s.semester());
+                    ps.setString(8, s.batch());
+                    ps.setString(9, s.phone());
+                    ps.setString(10, s.email());
+                    ps.setString(11, s.admissionNo());
+                });
+    }
+
+    public Optional<String> findSecurityQuestion(String admissionNo) throws SQLException {
+        return queryOne("SELECT security_question FROM students WHERE admission_no = ?",
+                ps -> ps.setString(1, admissionNo), rs -> rs.getString("security_question"));
+    }
+
+    public Optional<Credentials> findCredentials(String admissionNo) throws SQLException {
+        return queryOneUncached("SELECT security_answer, password FROM students WHERE admission_no = ?",
+                ps -> ps.setString(1, admissionNo),
+                rs -> new Credentials(rs.getString("security_answer"), rs.getString("password")));
+    }
+
+    public void updatePassword(String admissionNo, String newPassword) throws SQLException {
+        update("UPDATE students SET password = ? WHERE admission_no = ?", ps -> {
+            ps.setString(1, newPassword);
+            ps.setString(2, admissionNo);
+        });
+    }
+}
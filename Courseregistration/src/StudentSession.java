@@ -0,0 +1,38 @@
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * The student logged in at the kiosk and the names of the pages built for them.
+ * MainFrame disposes exactly those pages at logout and clears the last-result
+ * cache, so the next student starts from fresh pages while the connection pool
+ * and PosterCache stay warm in the same JVM. EDT only.
+ */
+public final class StudentSession {
+
+    private final String admissionNo;
+    private final String fullName;
+    private final Set<String> pageNames = new LinkedHashSet<>();
+
+    public StudentSession(String admissionNo, String fullName) {
+        this.admissionNo = admissionNo;
+        this.fullName = fullName;
+    }
+
+    public String admissionNo() {
+        return admissionNo;
+    }
+
+    public String fullName() {
+        return fullName;
+    }
+
+    /** Marks a page as belonging to this student, to be disposed when the session ends. */
+    void own(String pageName) {
+        pageNames.add(pageName);
+    }
+
+    Set<String> pageNames() {
+        return Collections.unmodifiableSet(pageNames);
+    }
+}
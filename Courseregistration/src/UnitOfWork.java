@@ -0,0 +1,199 @@
+import javax.swing.SwingUtilities;
+import java.awt.Component;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * A cancellable page load. The fetch runs on a virtual thread, never on the EDT,
+ * and a loading spinner covers the page while it is in flight. Statements the
+ * repositories prepare on that thread are tracked so cancel() can stop them on the
+ * server, and the results of a cancelled unit are never handed to the page.
+ *
+ * MainFrame.showPage cancels every unit whose page is no longer visible, and a new
+ * load for a page supersedes the one still running for it.
+ */
+public final class UnitOfWork {
+
+    public interface Fetch<T> {
+        T run() throws Exception;
+    }
+
+    static final int QUERY_TIMEOUT_SECONDS = DBConfig.getInt("db.queryTimeoutSeconds", 30);
+
+    private static final ThreadLocal<UnitOfWork> CURRENT = new ThreadLocal<>();
+
+    // Only touched on the EDT.
+    private static final List<UnitOfWork> IN_FLIGHT = new ArrayList<>();
+
+    /*
+     * Fetches block on JDBC, so each gets its own virtual thread: any number of pages
+     * and tabs can wait on the database at once, bounded only by the connection pool.
+     */
+    private static final ExecutorService LOADER =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("page-load-", 0).factory());
+
+    private final Component owner;
+    private final String action;
+    private final LoadingIndicator indicator;
+    private final Set<Statement> statements = ConcurrentHashMap.newKeySet();
+    private volatile boolean cancelled;
+
+    private UnitOfWork(Component owner, String action) {
+        this.owner = owner;
+        this.action = action;
+        this.indicator = new LoadingIndicator(owner);
+    }
+
+    /**
+     * Runs fetch in the background and passes its result to onResult on the EDT,
+     * unless the unit was cancelled first. Must be called on the EDT.
+     */
+    public static <T> UnitOfWork load(Component owner, String action, Fetch<T> fetch,
+                                      Consumer<? super T> onResult, Consumer<Exception> onError) {
+        cancelFor(owner);
+        UnitOfWork work = new UnitOfWork(owner, action);
+        IN_FLIGHT.add(work);
+        work.start(fetch, onResult, onError);
+        return work;
+    }
+
+    /**
+     * Runs a save or other user-requested action the same way, but it is never
+     * superseded or cancelled: once the user has asked for it, it finishes and
+     * reports back even if its page was hidden meanwhile. Must be called on the EDT.
+     */
+    public static <T> UnitOfWork submit(Component owner, String action, Fetch<T> fetch,
+                                        Consumer<? super T> onResult, Consumer<Exception> onError) {
+        UnitOfWork work = new UnitOfWork(owner, action);
+        work.start(fetch, onResult, onError);
+        return work;
+    }
+
+    private <T> void start(Fetch<T> fetch, Consumer<? super T> onResult, Consumer<Exception> onError) {
+        indicator.start();
+        LOADER.execute(() -> {
+            T result = null;
+            Throwable failure = null;
+            CURRENT.set(this);
+            QueryContext.Scope scope = QueryContext.enter(action);
+            try {
+                result = fetch.run();
+            } catch (Throwable t) {
+                failure = t;
+            } finally {
+                scope.close();
+                CURRENT.remove();
+            }
+            T value = result;
+            Throwable cause = failure;
+            SwingUtilities.invokeLater(() -> finish(value, cause, onResult, onError));
+        });
+    }
+
+    private <T> void finish(T result, Throwable failure, Consumer<? super T> onResult, Consumer<Exception> onError) {
+        IN_FLIGHT.remove(this);
+        indicator.stop();
+        if (cancelled) {
+            return;
+        }
+        if (failure == null) {
+            onResult.accept(result);
+        } else {
+            // An open breaker is reported too: pagers must reset their state, and a login
+            // or save has to tell the user it did not happen.
+            onError.accept(failure instanceof Exception ex ? ex : new RuntimeException(failure));
+        }
+    }
+
+    /** Cancels every unit that does not belong to the page about to be shown. */
+    public static void cancelAllExcept(Component visible) {
+        for (UnitOfWork work : new ArrayList<>(IN_FLIGHT)) {
+            if (!isWithin(work.owner, visible)) {
+                work.cancel();
+                IN_FLIGHT.remove(work);
+            }
+        }
+    }
+
+    /** Cancels every unit belonging to a page that is being thrown away. */
+    public static void cancelWithin(Component page) {
+        for (UnitOfWork work : new ArrayList<>(IN_FLIGHT)) {
+            if (isWithin(work.owner, page)) {
+                work.cancel();
+                IN_FLIGHT.remove(work);
+            }
+        }
+    }
+
+    private static void cancelFor(Component owner) {
+        for (UnitOfWork work : new ArrayList<>(IN_FLIGHT)) {
+            if (work.owner == owner) {
+                work.cancel();
+                IN_FLIGHT.remove(work);
+            }
+        }
+    }
+
+    private static boolean isWithin(Component c, Component ancestor) {
+        return ancestor != null && (c == ancestor || SwingUtilities.isDescendingFrom(c, ancestor));
+    }
+
+    /** The unit running on this thread, or null outside a page load. */
+    static UnitOfWork current() {
+        return CURRENT.get();
+    }
+
+    /** Applies the query timeout and, inside a unit of work, registers the statement for cancellation. */
+    static void track(Statement st) throws SQLException {
+        if (QUERY_TIMEOUT_SECONDS > 0) {
+            st.setQueryTimeout(QUERY_TIMEOUT_SECONDS);
+        }
+        UnitOfWork work = CURRENT.get();
+        if (work != null) {
+            work.statements.add(st);
+            work.checkNotCancelled();
+        }
+    }
+
+    void checkNotCancelled() throws SQLException {
+        if (cancelled) {
+            throw new SQLException(action + " was cancelled", "57014");
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Stops the unit's statements; its result is discarded. Call on the EDT. Only the
+     * flag is set here: Connector/J cancels by opening a second connection and sending
+     * KILL QUERY, so the statements are cancelled on a loader thread, not the EDT.
+     */
+    public void cancel() {
+        cancelled = true;
+        indicator.stop();
+        List<Statement> running = new ArrayList<>(statements);
+        statements.clear();
+        if (running.isEmpty()) {
+            return;
+        }
+        LOADER.execute(() -> {
+            for (Statement st : running) {
+                try {
+                    if (!st.isClosed()) {
+                        st.cancel();
+                    }
+                } catch (SQLException ignored) {
+                }
+            }
+        });
+    }
+}
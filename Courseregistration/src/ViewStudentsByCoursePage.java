@@ -4,6 +4,8 @@ import java.awt.*;
 import java.awt.event.*;
 import java.sql.*;
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Vector;
 
 public class ViewStudentsByCoursePage extends JPanel {
@@ -18,6 +20,9 @@ public class ViewStudentsByCoursePage extends JPanel {
     
     private String currentCourseId = null; 
 
+    private final CourseRepository courses = new CourseRepository();
+    private final RegistrationRepository registrations = new RegistrationRepository();
+
     public ViewStudentsByCoursePage(MainFrame main) {
         this.main = main;
         setLayout(new BorderLayout());
@@ -141,21 +146,11 @@ public class ViewStudentsByCoursePage extends JPanel {
         model.setRowCount(0);
         currentCourseId = null;
 
-        try (Connection conn = DBConnection.getConnection()) {
-           
-            String sql = "SELECT course_id, course_name FROM courses WHERE is_deleted = FALSE AND (LOWER(course_id) LIKE ? OR LOWER(course_name) LIKE ?)";
-            PreparedStatement pst = conn.prepareStatement(sql);
-            
-            String likeTerm = "%" + searchTerm.trim().toLowerCase() + "%";
-            pst.setString(1, likeTerm); 
-            pst.setString(2, likeTerm); 
-            
-            ResultSet rs = pst.executeQuery();
-            
+        UnitOfWork.load(this, "ViewStudentsByCoursePage.searchCourses", () -> courses.searchActive(searchTerm), found -> {
             Vector<CourseOption> courseOptions = new Vector<>();
-            while (rs.next()) {
+            for (CourseRepository.CourseOption option : found) {
               
-                courseOptions.add(new CourseOption(rs.getString("course_id"), rs.getString("course_name")));
+                courseOptions.add(new CourseOption(option.courseId(), option.courseName()));
             }
 
             if (courseOptions.isEmpty()) {
@@ -168,10 +163,10 @@ public class ViewStudentsByCoursePage extends JPanel {
                
                 showCourseSelectionDialog(courseOptions);
             }
-        } catch (SQLException ex) {
+        }, ex -> {
             lblSelectedCourseId.setText("Selected Course: Error");
             JOptionPane.showMessageDialog(this, "Error during course search: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
+        });
     }
     
     
@@ -222,31 +217,25 @@ public class ViewStudentsByCoursePage extends JPanel {
             return;
         }
 
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement pst = conn.prepareStatement(
-                 "SELECT s.admission_no, s.full_name, s.email, s.phone, s.semester, s.batch, s.dept, s.class_no " +
-                 "FROM students s " +
-                 "JOIN course_registrations cr ON s.admission_no = cr.student_admission_no " +
-                 "WHERE cr.course_id = ? AND cr.is_cancelled = FALSE " + 
-                 "ORDER BY s.full_name")) {
-
-            pst.setString(1, currentCourseId);
-            ResultSet rs = pst.executeQuery();
-            int studentCount = 0;
-
-            while (rs.next()) {
+        String courseId = currentCourseId;
+        UnitOfWork.load(table, "ViewStudentsByCoursePage.loadStudents", () -> {
+            List<RegistrationRepository.RegisteredStudent> students = new ArrayList<>();
+            registrations.streamRegisteredStudents(courseId, students::add);
+            return students;
+        }, students -> {
+            for (RegistrationRepository.RegisteredStudent s : students) {
                 model.addRow(new Object[]{
-                    rs.getString("admission_no"),
-                    rs.getString("full_name"),
-                    rs.getString("email"),
-                    rs.getString("phone"),
-                    rs.getString("semester"),
-                    rs.getString("batch"),
-                    rs.getString("dept"),
-                    rs.getString("class_no")
+                    s.admissionNo(),
+                    s.fullName(),
+                    s.email(),
+                    s.phone(),
+                    s.semester(),
+                    s.batch(),
+                    s.dept(),
+                    s.classNo()
                 });
-                studentCount++;
             }
+            int studentCount = model.getRowCount();
           
             String currentLabel = lblSelectedCourseId.getText();
             lblSelectedCourseId.setText(currentLabel.replaceAll("\\s*\\([^)]*\\)$", "") + " (" + studentCount + " Students)");
@@ -254,11 +243,10 @@ public class ViewStudentsByCoursePage extends JPanel {
             if (studentCount == 0) {
                  JOptionPane.showMessageDialog(this, "No active students are currently registered for this course.", "No Registrations", JOptionPane.INFORMATION_MESSAGE);
             }
-
-        } catch (SQLException ex) {
+        }, ex -> {
             JOptionPane.showMessageDialog(this, "Error loading student details: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
             ex.printStackTrace();
-        }
+        });
     }
 
    
@@ -0,0 +1,59 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AttendanceRepositoryTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 2);
+
+    private final AttendanceRepository attendance = new AttendanceRepository();
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        EmbeddedDatabase.reset();
+        EmbeddedDatabase.addStudent("A100", "Asha Rao");
+        EmbeddedDatabase.addStudent("A101", "Ben Thomas");
+        EmbeddedDatabase.addCourse("JAVA1", LocalDateTime.of(2026, 3, 2, 9, 0));
+    }
+
+    @Test
+    void savingNothingTouchesNothing() throws SQLException {
+        assertEquals(new AttendanceRepository.SaveResult(0, List.of()), attendance.saveChanges("JAVA1", DAY, List.of()));
+    }
+
+    @Test
+    void changedMarksOverwriteTheDaysMarkInPlace() throws SQLException {
+        attendance.saveChanges("JAVA1", DAY, List.of(mark("A100", "Present"), mark("A101", "Present")));
+
+        assertEquals(new AttendanceRepository.SaveResult(1, List.of()),
+                attendance.saveChanges("JAVA1", DAY, List.of(mark("A101", "Absent"))));
+        assertEquals(Map.of("A100", "Present", "A101", "Absent"), attendance.findStatuses("JAVA1", DAY));
+        assertEquals(Map.of(), attendance.findStatuses("JAVA1", DAY.plusDays(1)));
+    }
+
+    @Test
+    void marksForUnknownStudentsAreReportedNotDropped() throws SQLException {
+        AttendanceRepository.SaveResult result = attendance.saveChanges("JAVA1", DAY,
+                List.of(mark("A100", "Present"), mark("GONE1", "Absent"), mark("GONE2", "Present")));
+
+        assertEquals(new AttendanceRepository.SaveResult(1, List.of("GONE1", "GONE2")), result);
+        assertEquals(Map.of("A100", "Present"), attendance.findStatuses("JAVA1", DAY));
+    }
+
+    @Test
+    void everyMarkIsUnknownWhenTheCourseIsGone() throws SQLException {
+        assertEquals(new AttendanceRepository.SaveResult(0, List.of("A100")),
+                attendance.saveChanges("NOPE", DAY, List.of(mark("A100", "Present"))));
+    }
+
+    private static AttendanceRepository.AttendanceMark mark(String admissionNo, String status) {
+        return new AttendanceRepository.AttendanceMark(admissionNo, status);
+    }
+}
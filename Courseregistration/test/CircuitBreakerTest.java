@@ -0,0 +1,119 @@
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CircuitBreakerTest {
+
+    private static final SQLException REFUSED = new SQLTransientConnectionException("Connection refused", "08001");
+
+    private final AtomicBoolean reachable = new AtomicBoolean();
+    private final AtomicInteger probes = new AtomicInteger();
+    private final BlockingQueue<CircuitBreaker.State> changes = new LinkedBlockingQueue<>();
+    private CircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        System.setProperty("db.breaker.failureThreshold", "3");
+        System.setProperty("db.breaker.probeMillis", "100");
+        breaker = new CircuitBreaker("test", () -> {
+            probes.incrementAndGet();
+            if (!reachable.get()) {
+                throw REFUSED;
+            }
+        });
+        breaker.addListener(changes::add);
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.clearProperty("db.breaker.failureThreshold");
+        System.clearProperty("db.breaker.probeMillis");
+    }
+
+    @Test
+    void opensWhenConsecutiveFailedConnectsReachTheThreshold() {
+        breaker.recordFailure(REFUSED);
+        breaker.recordFailure(REFUSED);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertDoesNotThrow(breaker::checkAvailable);
+
+        breaker.recordFailure(REFUSED);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertEquals(CircuitBreaker.State.OPEN, changes.poll());
+        CircuitBreaker.OpenException open = assertThrows(CircuitBreaker.OpenException.class, breaker::checkAvailable);
+        assertTrue(open.getMessage().contains("Connection refused"));
+    }
+
+    @Test
+    void aSuccessfulRoundTripStartsTheCountAgain() {
+        breaker.recordFailure(REFUSED);
+        breaker.recordFailure(REFUSED);
+        breaker.recordSuccess();
+        breaker.recordFailure(REFUSED);
+        breaker.recordFailure(REFUSED);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertTrue(changes.isEmpty());
+    }
+
+    @Test
+    void serverErrorsTimeoutsAndItsOwnFastFailsDoNotCount() {
+        for (int i = 0; i < 5; i++) {
+            breaker.recordFailure(new SQLException("Table 'courses' doesn't exist", "42S02"));
+            breaker.recordFailure(new SQLTimeoutException("Query timed out", "HYT00"));
+            breaker.recordFailure(new CircuitBreaker.OpenException("open elsewhere"));
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void probeClosesTheBreakerOnceTheDatabaseAnswers() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            breaker.recordFailure(REFUSED);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, changes.poll(1, TimeUnit.SECONDS));
+
+        // Still unreachable: the probe keeps retrying and the breaker stays open.
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (probes.get() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(probes.get() >= 2);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+
+        reachable.set(true);
+
+        assertEquals(CircuitBreaker.State.CLOSED, changes.poll(5, TimeUnit.SECONDS));
+        assertDoesNotThrow(breaker::checkAvailable);
+        breaker.recordFailure(REFUSED);
+        breaker.recordFailure(REFUSED);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertNull(changes.poll());
+    }
+
+    @Test
+    void connectivityFailuresAreFoundInTheCauseChain() {
+        assertTrue(CircuitBreaker.isConnectivityFailure(new SQLException("wrapped", "HY000", REFUSED)));
+        assertTrue(CircuitBreaker.isConnectivityFailure(new SQLException("Communications link failure", "08S01")));
+        assertFalse(CircuitBreaker.isConnectivityFailure(new SQLTimeoutException("Query timed out", "HYT00")));
+        assertFalse(CircuitBreaker.isConnectivityFailure(new SQLException("Duplicate entry", "23000")));
+    }
+}
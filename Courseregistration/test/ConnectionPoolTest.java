@@ -0,0 +1,141 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ConnectionPoolTest {
+
+    private static final String[] SETTINGS = {
+            "db.pool.maxSize", "db.pool.minIdle", "db.pool.borrowTimeoutMillis",
+            "db.pool.leakThresholdMillis", "db.pool.housekeepingMillis"
+    };
+
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        System.setProperty("db.pool.maxSize", "2");
+        System.setProperty("db.pool.minIdle", "0");
+        System.setProperty("db.pool.borrowTimeoutMillis", "200");
+        System.setProperty("db.pool.leakThresholdMillis", "100");
+        System.setProperty("db.pool.housekeepingMillis", "50");
+        pool = new ConnectionPool("test", "jdbc:h2:mem:pool-test;DB_CLOSE_DELAY=-1", new Properties());
+        try (Connection conn = pool.borrow();
+             Statement st = conn.createStatement()) {
+            st.executeUpdate("CREATE TABLE IF NOT EXISTS marks (id INT PRIMARY KEY)");
+            st.executeUpdate("DELETE FROM marks");
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+        for (String setting : SETTINGS) {
+            System.clearProperty(setting);
+        }
+    }
+
+    @Test
+    void closeHandsThePhysicalConnectionBack() throws SQLException {
+        Connection first = pool.borrow();
+        first.close();
+        assertTrue(first.isClosed());
+
+        try (Connection second = pool.borrow()) {
+            assertNotSame(first, second);
+            assertFalse(second.isClosed());
+        }
+        ConnectionPool.Stats stats = pool.stats();
+        assertEquals(0, stats.active());
+        assertEquals(1, stats.total());
+    }
+
+    @Test
+    void exhaustedPoolTimesOutWithoutAConnectivityState() throws SQLException {
+        try (Connection a = pool.borrow(); Connection b = pool.borrow()) {
+            SQLTransientException e = assertThrows(SQLTransientException.class, pool::borrow);
+            assertEquals("HYT00", e.getSQLState());
+            assertFalse(CircuitBreaker.isConnectivityFailure(e));
+            assertEquals(1, pool.stats().timeouts());
+        }
+    }
+
+    @Test
+    void interruptedWaitKeepsTheInterruptFlag() throws SQLException {
+        try (Connection a = pool.borrow(); Connection b = pool.borrow()) {
+            Thread.currentThread().interrupt();
+            SQLTransientException e = assertThrows(SQLTransientException.class, pool::borrow);
+            assertEquals("HY008", e.getSQLState());
+            assertTrue(Thread.interrupted());
+        }
+    }
+
+    @Test
+    void connectionHeldPastTheThresholdIsReportedOnce() throws Exception {
+        try (Connection held = pool.borrow()) {
+            assertTrue(waitFor(() -> pool.stats().leaks() == 1));
+            Thread.sleep(200);
+            assertEquals(1, pool.stats().leaks());
+            assertEquals(1, pool.stats().active());
+        }
+        assertEquals(0, pool.stats().active());
+    }
+
+    @Test
+    void unclosedConnectionIsReclaimedAndRolledBackAfterGarbageCollection() throws Exception {
+        System.setProperty("db.pool.leakThresholdMillis", "0");
+        pool.close();
+        pool = new ConnectionPool("test", "jdbc:h2:mem:pool-test;DB_CLOSE_DELAY=-1", new Properties());
+
+        borrowAndForget();
+        borrowAndForget();
+        assertTrue(waitFor(() -> {
+            System.gc();
+            return pool.stats().active() == 0;
+        }));
+
+        assertEquals(2, pool.stats().leaks());
+        try (Connection a = pool.borrow(); Connection b = pool.borrow();
+             Statement st = a.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM marks")) {
+            assertTrue(a.getAutoCommit());
+            assertTrue(b.getAutoCommit());
+            rs.next();
+            assertEquals(0, rs.getInt(1));
+        }
+    }
+
+    /** Leaves an uncommitted insert on a connection nobody closes or references again. */
+    private void borrowAndForget() throws SQLException {
+        Connection conn = pool.borrow();
+        conn.setAutoCommit(false);
+        try (Statement st = conn.createStatement()) {
+            st.executeUpdate("INSERT INTO marks VALUES (" + pool.stats().borrows() + ")");
+        }
+    }
+
+    private static boolean waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(20);
+        }
+        return true;
+    }
+}
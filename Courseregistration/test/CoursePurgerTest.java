@@ -0,0 +1,135 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CoursePurgerTest {
+
+    private final CoursePurger purger = new CoursePurger();
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        EmbeddedDatabase.reset();
+        EmbeddedDatabase.addStudent("A100", "Asha Rao");
+        EmbeddedDatabase.addCourse("JAVA1", LocalDateTime.of(2026, 3, 2, 9, 0));
+        EmbeddedDatabase.addCourse("JAVA2", LocalDateTime.of(2026, 3, 3, 9, 0));
+    }
+
+    @Test
+    void attendanceIsDeletedOneChunkAtATime() throws SQLException {
+        int marks = CoursePurger.CHUNK_SIZE * 2 + 5;
+        addAttendance("JAVA1", marks);
+        List<CoursePurger.Progress> progress = new ArrayList<>();
+
+        CoursePurger.Report report = purger.purge(List.of("JAVA1"), progress::add);
+
+        assertEquals(new CoursePurger.Report(1, marks + 1, List.of(), false), report);
+        assertEquals(List.of((long) CoursePurger.CHUNK_SIZE, CoursePurger.CHUNK_SIZE * 2L, (long) marks),
+                progress.stream().filter(p -> "attendance".equals(p.table())).map(CoursePurger.Progress::rowsDeleted).toList());
+        assertEquals(0, count("SELECT COUNT(*) FROM attendance"));
+        assertEquals(1, count("SELECT COUNT(*) FROM courses"));
+    }
+
+    @Test
+    void missingCoursesAreReportedAndTheRestPurged() throws SQLException {
+        CoursePurger.Report report = purger.purge(List.of("NOPE", "JAVA2"), p -> { });
+
+        assertEquals(new CoursePurger.Report(1, 1, List.of("NOPE"), false), report);
+        assertEquals(1, count("SELECT COUNT(*) FROM courses"));
+    }
+
+    @Test
+    void interruptWhileWaitingForAConnectionKeepsThePartialReport() throws Exception {
+        CountDownLatch firstChunk = new CountDownLatch(1);
+        CountDownLatch poolExhausted = new CountDownLatch(1);
+        AtomicReference<Object> outcome = new AtomicReference<>();
+
+        Thread purge = new Thread(() -> {
+            try {
+                outcome.set(purger.purge(List.of("JAVA1", "JAVA2"), p -> {
+                    if (p.table() == null) {
+                        firstChunk.countDown();
+                        await(poolExhausted);
+                    }
+                }));
+            } catch (SQLException e) {
+                outcome.set(e);
+            }
+        }, "purge-test");
+        purge.start();
+
+        List<Connection> held = new ArrayList<>();
+        try {
+            assertTrue(firstChunk.await(10, TimeUnit.SECONDS));
+            int maxSize = DBConnection.getPoolStats().maxSize();
+            while (held.size() < maxSize) {
+                held.add(DBConnection.getConnection());
+            }
+            poolExhausted.countDown();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (DBConnection.getPoolStats().waiting() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(1, DBConnection.getPoolStats().waiting());
+            purge.interrupt();
+            purge.join(TimeUnit.SECONDS.toMillis(10));
+        } finally {
+            for (Connection conn : held) {
+                conn.close();
+            }
+        }
+
+        assertFalse(purge.isAlive());
+        assertEquals(new CoursePurger.Report(1, 1, List.of(), true), outcome.get());
+        assertEquals(1, count("SELECT COUNT(*) FROM courses"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** One mark per day for A100, starting on the course date. */
+    private static void addAttendance(String courseId, int days) throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement("INSERT INTO attendance (course_ref, student_id, date_recorded, status) "
+                     + "VALUES (" + Repository.COURSE_KEY + ", " + Repository.STUDENT_KEY + ", ?, ?)")) {
+            LocalDate first = LocalDate.of(2026, 3, 2);
+            for (int i = 0; i < days; i++) {
+                ps.setString(1, courseId);
+                ps.setString(2, "A100");
+                ps.setDate(3, java.sql.Date.valueOf(first.plusDays(i)));
+                ps.setString(4, "Present");
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    private static long count(String sql) throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
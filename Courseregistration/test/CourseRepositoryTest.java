@@ -0,0 +1,110 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CourseRepositoryTest {
+
+    private final CourseRepository courses = new CourseRepository();
+
+    private interface PageQuery {
+        CourseRepository.Page<CourseRepository.CourseSummary> next(CourseRepository.Cursor after) throws SQLException;
+    }
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        EmbeddedDatabase.reset();
+    }
+
+    @Test
+    void exactlyOnePageHasNoNextCursor() throws SQLException {
+        addCourses("UP", CourseRepository.PAGE_SIZE, LocalDateTime.now().plusDays(1).withNano(0));
+
+        CourseRepository.Page<CourseRepository.CourseSummary> page = courses.findUpcoming(null, null);
+
+        assertEquals(CourseRepository.PAGE_SIZE, page.rows().size());
+        assertNull(page.next());
+    }
+
+    @Test
+    void pagesSplitInsideARunOfEqualEndTimes() throws SQLException {
+        // Every course ends at the same moment, so only course_id tells the pages apart.
+        int total = CourseRepository.PAGE_SIZE * 2 + 1;
+        addCourses("UP", total, LocalDateTime.now().plusDays(1).withNano(0));
+
+        List<List<String>> pages = readAll(after -> courses.findUpcoming(null, after));
+
+        assertEquals(List.of(CourseRepository.PAGE_SIZE, CourseRepository.PAGE_SIZE, 1),
+                pages.stream().map(List::size).toList());
+        assertEquals(ids("UP", total), pages.stream().flatMap(List::stream).toList());
+    }
+
+    @Test
+    void pastCoursesPageNewestFirstAcrossEqualEndTimes() throws SQLException {
+        LocalDateTime older = LocalDateTime.now().minusDays(3).withNano(0);
+        LocalDateTime newer = LocalDateTime.now().minusDays(2).withNano(0);
+        int perDay = CourseRepository.PAGE_SIZE / 2 + 1;
+        addCourses("OLD", perDay, older);
+        addCourses("NEW", perDay, newer);
+
+        List<List<String>> pages = readAll(after -> courses.findCompleted(null, after));
+
+        List<String> expected = new ArrayList<>(ids("NEW", perDay));
+        expected.sort(Comparator.reverseOrder());
+        List<String> olderIds = new ArrayList<>(ids("OLD", perDay));
+        olderIds.sort(Comparator.reverseOrder());
+        expected.addAll(olderIds);
+        assertEquals(expected, pages.stream().flatMap(List::stream).toList());
+        assertEquals(CourseRepository.PAGE_SIZE, pages.get(0).size());
+    }
+
+    @Test
+    void upcomingAndPastAreSplitAtTheEndOfTheCourse() throws SQLException {
+        // Both are one-hour courses: the first is half way through, the second ended half an hour ago.
+        EmbeddedDatabase.addCourse("RUNNING", LocalDateTime.now().minusMinutes(30).withNano(0));
+        EmbeddedDatabase.addCourse("OVER", LocalDateTime.now().minusMinutes(90).withNano(0));
+
+        assertEquals(List.of("RUNNING"), readAll(after -> courses.findUpcoming(null, after)).get(0));
+        assertEquals(List.of("OVER"), readAll(after -> courses.findCompleted(null, after)).get(0));
+    }
+
+    /** Follows the next cursors to the end and returns the course ids of each page. */
+    private static List<List<String>> readAll(PageQuery query) throws SQLException {
+        List<List<String>> pages = new ArrayList<>();
+        CourseRepository.Cursor after = null;
+        do {
+            CourseRepository.Page<CourseRepository.CourseSummary> page = query.next(after);
+            pages.add(page.rows().stream().map(CourseRepository.CourseSummary::courseId).toList());
+            if (page.next() != null) {
+                CourseRepository.CourseSummary last = page.rows().get(page.rows().size() - 1);
+                assertEquals(new CourseRepository.Cursor(last.endsAt(), last.courseId()), page.next());
+                assertNotNull(page.next().endsAt());
+            }
+            after = page.next();
+        } while (after != null);
+        return pages;
+    }
+
+    private static void addCourses(String prefix, int count, LocalDateTime start) throws SQLException {
+        for (String id : ids(prefix, count)) {
+            EmbeddedDatabase.addCourse(id, start);
+        }
+    }
+
+    /** Zero-padded so the ids sort the same as strings and as numbers. */
+    private static List<String> ids(String prefix, int count) {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(String.format("%s%03d", prefix, i));
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,62 @@
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Time;
+import java.time.LocalDateTime;
+
+/**
+ * The database the tests run against: db.mode=embedded on a private in-memory H2
+ * database, migrated once per JVM by SchemaMigrator, so no MySQL server is needed.
+ */
+final class EmbeddedDatabase {
+
+    // Children first, so the foreign keys never block a delete.
+    private static final String[] TABLES = {
+            "course_results", "attendance", "course_registrations", "courses", "students", "admins"
+    };
+
+    private static boolean started;
+
+    private EmbeddedDatabase() {
+    }
+
+    /** Points DBConnection at the in-memory database and migrates it; must run before DBConnection is first used. */
+    static synchronized void start() throws SQLException {
+        if (started) {
+            return;
+        }
+        System.setProperty("db.mode", "embedded");
+        System.setProperty("db.embedded.url",
+                "jdbc:h2:mem:registrationdb-test;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        try (Connection conn = DBConnection.getConnection()) {
+            SchemaMigrator.migrate(conn);
+        }
+        started = true;
+    }
+
+    /** Empties every application table and forgets the last results of earlier tests. */
+    static void reset() throws SQLException {
+        start();
+        Repository.clearLastResults();
+        try (Connection conn = DBConnection.getConnection();
+             Statement st = conn.createStatement()) {
+            for (String table : TABLES) {
+                st.executeUpdate("DELETE FROM " + table);
+            }
+        }
+    }
+
+    static void addStudent(String admissionNo, String fullName) throws SQLException {
+        new StudentRepository().insert(new StudentRepository.Student(admissionNo, "R-" + admissionNo, fullName,
+                        "F", Date.valueOf("2004-01-01"), "CS-A", "Computer Science", "S5", "2022", "0000000000",
+                        admissionNo + "@example.edu"),
+                "secret", "Pet?", "cat");
+    }
+
+    /** A one-hour course starting at the given local time. */
+    static void addCourse(String courseId, LocalDateTime start) throws SQLException {
+        new CourseRepository().insert(courseId, "Course " + courseId, "", Date.valueOf(start.toLocalDate()),
+                Time.valueOf(start.toLocalTime()), 60, "Online", null);
+    }
+}
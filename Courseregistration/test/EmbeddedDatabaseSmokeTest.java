@@ -0,0 +1,65 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Runs a student's whole path through the repositories against the embedded engine. */
+class EmbeddedDatabaseSmokeTest {
+
+    private final StudentRepository students = new StudentRepository();
+    private final CourseRepository courses = new CourseRepository();
+    private final RegistrationRepository registrations = new RegistrationRepository();
+    private final AttendanceRepository attendance = new AttendanceRepository();
+    private final ResultRepository results = new ResultRepository();
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        EmbeddedDatabase.reset();
+    }
+
+    @Test
+    void migratesToTheLatestVersion() throws SQLException {
+        try (Connection conn = DBConnection.getConnection()) {
+            assertEquals(SchemaMigrator.latestVersion(), SchemaMigrator.currentVersion(conn));
+            assertEquals(0, SchemaMigrator.migrate(conn));
+            SchemaMigrator.explain(conn);
+        }
+    }
+
+    @Test
+    void studentRegistersIsMarkedPresentAndGetsACertificate() throws SQLException {
+        EmbeddedDatabase.addStudent("A100", "Asha Rao");
+        EmbeddedDatabase.addCourse("JAVA1", LocalDateTime.now().plusDays(1).withNano(0));
+
+        assertEquals("Asha Rao", students.authenticate("A100", "secret").orElseThrow());
+        assertEquals(List.of("JAVA1"), courseIds(courses.findAvailableForStudent("A100", true, null).rows()
+                .stream().map(CourseRepository.AvailableCourse::course).toList()));
+
+        assertEquals(RegistrationRepository.RegistrationState.REGISTERED, registrations.register("A100", "JAVA1"));
+        assertTrue(courses.findAvailableForStudent("A100", true, null).rows().isEmpty());
+        assertEquals(List.of("JAVA1"), courseIds(registrations.findCoursesForStudent("A100", true, null).rows()
+                .stream().map(RegistrationRepository.RegisteredCourse::course).toList()));
+        assertEquals(1, courses.findForStudent("JAVA1", "A100").orElseThrow().enrolledCount());
+
+        LocalDate today = LocalDate.now();
+        assertEquals(new AttendanceRepository.SaveResult(1, List.of()), attendance.saveChanges("JAVA1", today,
+                List.of(new AttendanceRepository.AttendanceMark("A100", "Present"))));
+        assertEquals(Map.of("A100", "Present"), attendance.findStatuses("JAVA1", today));
+
+        assertEquals(new ResultRepository.FinalizationSummary(1, 0), results.finalizeResults("JAVA1"));
+        assertEquals(List.of("JAVA1"), results.findCertificates("A100").stream()
+                .map(ResultRepository.Certificate::courseId).toList());
+    }
+
+    private static List<String> courseIds(List<CourseRepository.CourseSummary> summaries) {
+        return summaries.stream().map(CourseRepository.CourseSummary::courseId).toList();
+    }
+}
@@ -0,0 +1,66 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RegistrationRepositoryTest {
+
+    private final RegistrationRepository registrations = new RegistrationRepository();
+    private final CourseRepository courses = new CourseRepository();
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        EmbeddedDatabase.reset();
+        EmbeddedDatabase.addStudent("A100", "Asha Rao");
+        EmbeddedDatabase.addCourse("JAVA1", LocalDateTime.now().plusDays(1).withNano(0));
+    }
+
+    @Test
+    void firstRegistrationInsertsTheRow() throws SQLException {
+        assertEquals(RegistrationRepository.RegistrationState.REGISTERED, registrations.register("A100", "JAVA1"));
+        assertEquals(1, enrolled());
+    }
+
+    @Test
+    void registeringAgainChangesNothing() throws SQLException {
+        registrations.register("A100", "JAVA1");
+
+        assertEquals(RegistrationRepository.RegistrationState.ALREADY_REGISTERED, registrations.register("A100", "JAVA1"));
+        assertEquals(1, enrolled());
+    }
+
+    @Test
+    void registeringAfterCancellingReactivatesTheSameRow() throws SQLException {
+        registrations.register("A100", "JAVA1");
+        assertTrue(registrations.cancel("A100", "JAVA1"));
+        assertEquals(0, enrolled());
+
+        assertEquals(RegistrationRepository.RegistrationState.REACTIVATED, registrations.register("A100", "JAVA1"));
+        assertEquals(1, enrolled());
+        assertEquals(RegistrationRepository.RegistrationState.ALREADY_REGISTERED, registrations.register("A100", "JAVA1"));
+    }
+
+    @Test
+    void cancellingTwiceReportsNothingToCancel() throws SQLException {
+        registrations.register("A100", "JAVA1");
+
+        assertTrue(registrations.cancel("A100", "JAVA1"));
+        assertFalse(registrations.cancel("A100", "JAVA1"));
+    }
+
+    @Test
+    void updatesReportMatchedRowsEvenWhenNothingChanges() throws SQLException {
+        assertTrue(courses.setDeleted("JAVA1", true));
+        assertTrue(courses.setDeleted("JAVA1", true));
+        assertFalse(courses.setDeleted("NOPE", true));
+    }
+
+    private int enrolled() throws SQLException {
+        return courses.findForStudent("JAVA1", "A100").orElseThrow().enrolledCount();
+    }
+}
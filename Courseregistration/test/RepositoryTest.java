@@ -0,0 +1,66 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RepositoryTest {
+
+    /** Reads course codes, failing as if the database were unreachable when asked to. */
+    private static final class CourseCodes extends Repository {
+        boolean unreachable;
+
+        List<String> all() throws SQLException {
+            return queryList("SELECT course_id FROM courses ORDER BY course_id", Binder.NONE, rs -> {
+                if (unreachable) {
+                    throw new SQLTransientConnectionException("connection refused", "08001");
+                }
+                return rs.getString("course_id");
+            });
+        }
+    }
+
+    private final CourseCodes codes = new CourseCodes();
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        EmbeddedDatabase.reset();
+        EmbeddedDatabase.addCourse("JAVA1", LocalDateTime.now().plusDays(1).withNano(0));
+        EmbeddedDatabase.addCourse("JAVA2", LocalDateTime.now().plusDays(2).withNano(0));
+    }
+
+    @Test
+    void returnedListCannotBeChanged() throws SQLException {
+        List<String> rows = codes.all();
+
+        assertThrows(UnsupportedOperationException.class, () -> rows.add("SQL1"));
+        assertThrows(UnsupportedOperationException.class, rows::clear);
+    }
+
+    @Test
+    void unreachableDatabaseAnswersWithTheLastResult() throws SQLException {
+        List<String> first = codes.all();
+        codes.unreachable = true;
+
+        assertEquals(List.of("JAVA1", "JAVA2"), codes.all());
+        assertEquals(first, codes.all());
+    }
+
+    @Test
+    void otherFailuresAreNotAnsweredFromTheLastResult() throws SQLException {
+        codes.all();
+
+        assertThrows(SQLException.class, () -> new Repository() {
+            List<String> broken() throws SQLException {
+                return queryList("SELECT course_id FROM courses ORDER BY course_id", Binder.NONE, rs -> {
+                    throw new SQLException("bad column", "42S22");
+                });
+            }
+        }.broken());
+    }
+}
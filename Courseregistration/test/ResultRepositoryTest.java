@@ -0,0 +1,65 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ResultRepositoryTest {
+
+    private static final LocalDate DAY1 = LocalDate.of(2026, 3, 2);
+    private static final LocalDate DAY2 = LocalDate.of(2026, 3, 3);
+
+    private final ResultRepository results = new ResultRepository();
+    private final AttendanceRepository attendance = new AttendanceRepository();
+    private final RegistrationRepository registrations = new RegistrationRepository();
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        EmbeddedDatabase.reset();
+        EmbeddedDatabase.addStudent("A100", "Asha Rao");
+        EmbeddedDatabase.addStudent("A101", "Ben Thomas");
+        EmbeddedDatabase.addCourse("JAVA1", LocalDateTime.of(2026, 3, 2, 9, 0));
+        registrations.register("A100", "JAVA1");
+        registrations.register("A101", "JAVA1");
+    }
+
+    @Test
+    void nothingIsWrittenBeforeAttendanceIsTaken() throws SQLException {
+        assertEquals(new ResultRepository.FinalizationSummary(0, 0), results.finalizeResults("JAVA1"));
+    }
+
+    @Test
+    void outcomesFollowTheCoursesAttendanceRule() throws SQLException {
+        results.setMinAttendancePercent("JAVA1", 50);
+        mark(DAY1, "Present", "Absent");
+        mark(DAY2, "Absent", "Absent");
+
+        assertEquals(new ResultRepository.FinalizationSummary(1, 1), results.finalizeResults("JAVA1"));
+        assertEquals(List.of("JAVA1"), certificates("A100"));
+        assertEquals(List.of(), certificates("A101"));
+    }
+
+    @Test
+    void finalizingAgainOverwritesEarlierOutcomes() throws SQLException {
+        mark(DAY1, "Absent", "Present");
+        assertEquals(new ResultRepository.FinalizationSummary(1, 1), results.finalizeResults("JAVA1"));
+
+        mark(DAY1, "Present", "Present");
+        assertEquals(new ResultRepository.FinalizationSummary(2, 0), results.finalizeResults("JAVA1"));
+        assertEquals(List.of("JAVA1"), certificates("A100"));
+    }
+
+    private void mark(LocalDate day, String first, String second) throws SQLException {
+        attendance.saveChanges("JAVA1", day, List.of(
+                new AttendanceRepository.AttendanceMark("A100", first),
+                new AttendanceRepository.AttendanceMark("A101", second)));
+    }
+
+    private List<String> certificates(String admissionNo) throws SQLException {
+        return results.findCertificates(admissionNo).stream().map(ResultRepository.Certificate::courseId).toList();
+    }
+}
@@ -0,0 +1,90 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Runs the migrations on a database of its own, starting from the pre-V3 schema with natural keys. */
+class SchemaMigratorTest {
+
+    private Connection conn;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        conn = DriverManager.getConnection("jdbc:h2:mem:migrator-test;MODE=MySQL;DATABASE_TO_LOWER=TRUE");
+        assertEquals(2, SchemaMigrator.migrate(conn, 2));
+        execute("INSERT INTO students (admission_no, full_name, password) VALUES ('A100', 'Asha Rao', 'x')");
+        execute("INSERT INTO courses (course_id, course_name, course_date, course_time) "
+                + "VALUES ('JAVA1', 'Java', DATE '2026-03-02', TIME '09:00:00')");
+        // Rows left behind by deletes made before the foreign keys were enforced.
+        execute("SET REFERENTIAL_INTEGRITY FALSE");
+        execute("INSERT INTO course_registrations (student_admission_no, course_id) "
+                + "VALUES ('A100', 'JAVA1'), ('GONE', 'JAVA1'), ('A100', 'GONE')");
+        execute("INSERT INTO attendance (course_id, admission_no, date_recorded, status) "
+                + "VALUES ('JAVA1', 'A100', DATE '2026-03-02', 'Present'), ('GONE', 'A100', DATE '2026-03-02', 'Absent')");
+        execute("INSERT INTO course_results (admission_no, course_id, status) VALUES ('A100', 'JAVA1', 'COMPLETED')");
+        execute("SET REFERENTIAL_INTEGRITY TRUE");
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        conn.close();
+    }
+
+    @Test
+    void rekeyMovesOrphanedRowsToQuarantineWithTheirNaturalKeys() throws SQLException {
+        SchemaMigrator.migrate(conn);
+
+        assertEquals(List.of("1|1"), rows("SELECT s.id, c.id FROM course_registrations r "
+                + "JOIN students s ON s.id = r.student_id JOIN courses c ON c.id = r.course_ref"));
+        assertEquals(List.of("A100|GONE", "GONE|JAVA1"), rows("SELECT student_admission_no, course_id "
+                + "FROM course_registrations_orphans ORDER BY student_admission_no"));
+
+        assertEquals(List.of("Present"), rows("SELECT status FROM attendance"));
+        assertEquals(List.of("A100|GONE|Absent"), rows("SELECT admission_no, course_id, status FROM attendance_orphans"));
+
+        assertEquals(List.of("COMPLETED"), rows("SELECT status FROM course_results"));
+        assertEquals(List.of(), rows("SELECT admission_no FROM course_results_orphans"));
+    }
+
+    @Test
+    void migratingAgainChangesNothing() throws SQLException {
+        int latest = SchemaMigrator.migrate(conn) + 2;
+
+        assertEquals(0, SchemaMigrator.migrate(conn));
+        assertEquals(latest, SchemaMigrator.currentVersion(conn));
+        assertEquals(List.of("A100|GONE", "GONE|JAVA1"), rows("SELECT student_admission_no, course_id "
+                + "FROM course_registrations_orphans ORDER BY student_admission_no"));
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.execute(sql);
+        }
+    }
+
+    /** Each row as its columns joined with '|'. */
+    private List<String> rows(String sql) throws SQLException {
+        List<String> rows = new ArrayList<>();
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery(sql)) {
+            int columns = rs.getMetaData().getColumnCount();
+            while (rs.next()) {
+                List<String> values = new ArrayList<>();
+                for (int i = 1; i <= columns; i++) {
+                    values.add(rs.getString(i));
+                }
+                rows.add(String.join("|", values));
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,142 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class UnitOfWorkTest {
+
+    private final JPanel page = new JPanel();
+    private final JLabel owner = new JLabel();
+    private final List<Object> delivered = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        EmbeddedDatabase.start();
+        page.add(owner);
+    }
+
+    @Test
+    void resultIsHandedOverOnTheEdt() throws Exception {
+        onEdt(() -> UnitOfWork.load(owner, "test", () -> "rows",
+                r -> delivered.add(SwingUtilities.isEventDispatchThread() + " " + r), delivered::add));
+
+        awaitDelivery(1);
+        assertEquals(List.of("true rows"), delivered);
+    }
+
+    @Test
+    void failuresIncludingAnOpenBreakerReachOnError() throws Exception {
+        onEdt(() -> UnitOfWork.load(owner, "test", () -> {
+            throw new CircuitBreaker.OpenException("Database unavailable");
+        }, delivered::add, delivered::add));
+
+        awaitDelivery(1);
+        assertInstanceOf(CircuitBreaker.OpenException.class, delivered.get(0));
+    }
+
+    @Test
+    void newerLoadForTheSameOwnerSupersedesTheOlder() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> olderDone = new CompletableFuture<>();
+        onEdt(() -> UnitOfWork.load(owner, "older", () -> {
+            release.await(10, TimeUnit.SECONDS);
+            olderDone.complete(null);
+            return "older";
+        }, delivered::add, delivered::add));
+        onEdt(() -> UnitOfWork.load(owner, "newer", () -> "newer", delivered::add, delivered::add));
+        awaitDelivery(1);
+
+        release.countDown();
+        olderDone.get(10, TimeUnit.SECONDS);
+        settle();
+
+        assertEquals(List.of("newer"), delivered);
+    }
+
+    @Test
+    void cancellingThePageCancelsItsStatementOffTheEdt() throws Exception {
+        CompletableFuture<Boolean> cancelledOnEdt = new CompletableFuture<>();
+        CountDownLatch running = new CountDownLatch(1);
+        // Stands in for a statement waiting on the server: execute returns once cancel() is called.
+        Statement statement = (Statement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{Statement.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "cancel" -> cancelledOnEdt.complete(SwingUtilities.isEventDispatchThread());
+                        case "execute" -> {
+                            running.countDown();
+                            cancelledOnEdt.get(10, TimeUnit.SECONDS);
+                            throw new SQLException("Statement was canceled", "57014");
+                        }
+                        case "hashCode" -> {
+                            return System.identityHashCode(proxy);
+                        }
+                        case "equals" -> {
+                            return proxy == args[0];
+                        }
+                        default -> { }
+                    }
+                    return method.getReturnType() == boolean.class ? false : null;
+                });
+        onEdt(() -> UnitOfWork.load(owner, "blocked", () -> {
+            UnitOfWork.track(statement);
+            return statement.execute("SELECT 1");
+        }, delivered::add, delivered::add));
+        assertTrue(running.await(10, TimeUnit.SECONDS));
+
+        onEdt(() -> UnitOfWork.cancelWithin(page));
+
+        assertFalse(cancelledOnEdt.get(10, TimeUnit.SECONDS));
+        settle();
+        assertEquals(List.of(), delivered);
+    }
+
+    @Test
+    void submittedWorkFinishesAfterItsPageIsCancelled() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        onEdt(() -> UnitOfWork.submit(owner, "save", () -> {
+            release.await(10, TimeUnit.SECONDS);
+            return "saved";
+        }, delivered::add, delivered::add));
+
+        onEdt(() -> UnitOfWork.cancelWithin(page));
+        release.countDown();
+
+        awaitDelivery(1);
+        assertEquals(List.of("saved"), delivered);
+    }
+
+    private void awaitDelivery(int count) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (delivered.size() < count && System.nanoTime() < deadline) {
+            onEdt(() -> { });
+            Thread.sleep(10);
+        }
+        assertEquals(count, delivered.size());
+    }
+
+    /** Gives a discarded result time to be posted to the EDT, then lets the EDT run it. */
+    private static void settle() throws Exception {
+        Thread.sleep(200);
+        onEdt(() -> { });
+    }
+
+    private static void onEdt(Runnable task) throws Exception {
+        SwingUtilities.invokeAndWait(task);
+    }
+}